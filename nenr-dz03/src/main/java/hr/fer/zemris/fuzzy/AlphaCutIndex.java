@@ -0,0 +1,219 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+
+/**
+ * A secondary index over the memberships of a fuzzy set, sorted by grade. The
+ * elements of any alpha-cut or strong alpha-cut, and so the support and the
+ * core, are a contiguous range of ranks found by a binary search. Elements of
+ * equal grade are ranked by their index in the domain.
+ * <p>
+ * An index obtained from {@link MutableFuzzySet#alphaCutIndex()} is kept up
+ * to date by the set: changing one membership moves the element to its new
+ * rank in time proportional to the number of ranks it crosses. An index built
+ * with {@link #of(IFuzzySet)} is a snapshot.
+ */
+public class AlphaCutIndex {
+	
+	private IDomain domain;
+	
+	/**
+	 * Grades in ascending order.
+	 */
+	private double[] grades;
+	
+	/**
+	 * Domain index of the element at every rank.
+	 */
+	private int[] order;
+	
+	/**
+	 * Rank of the element at every domain index.
+	 */
+	private int[] rank;
+	
+	AlphaCutIndex(IDomain domain, double[] memberships) {
+		this.domain = domain;
+		int n = memberships.length;
+		
+		order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		sort(order, memberships);
+		
+		grades = new double[n];
+		rank = new int[n];
+		for (int r = 0; r < n; r++) {
+			grades[r] = memberships[order[r]];
+			rank[order[r]] = r;
+		}
+	}
+	
+	/**
+	 * Builds a snapshot index over the current memberships of <code>set</code>.
+	 * 
+	 * @param set - the set to index
+	 * @return the index
+	 */
+	public static AlphaCutIndex of(IFuzzySet set) {
+		if (set instanceof MutableFuzzySet)
+			return new AlphaCutIndex(set.getDomain(), ((MutableFuzzySet) set).memberships());
+		
+		double[] memberships = new double[set.getDomain().getCardinality()];
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = set.getValueAtIndex(i);
+		}
+		
+		return new AlphaCutIndex(set.getDomain(), memberships);
+	}
+	
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	/**
+	 * Returns the number of elements with a membership of at least <code>alpha</code>.
+	 */
+	public int alphaCutSize(double alpha) {
+		return grades.length - lowerBound(alpha);
+	}
+	
+	/**
+	 * Returns the number of elements with a membership greater than <code>alpha</code>.
+	 */
+	public int strongAlphaCutSize(double alpha) {
+		return grades.length - upperBound(alpha);
+	}
+	
+	/**
+	 * Returns the domain indices of the elements with a membership of at
+	 * least <code>alpha</code>, in ascending order of membership.
+	 * 
+	 * @param alpha - the alpha level
+	 * @return indices of the elements of the alpha-cut
+	 */
+	public int[] alphaCut(double alpha) {
+		return Arrays.copyOfRange(order, lowerBound(alpha), order.length);
+	}
+	
+	/**
+	 * Returns the domain indices of the elements with a membership greater
+	 * than <code>alpha</code>, in ascending order of membership.
+	 * 
+	 * @param alpha - the alpha level
+	 * @return indices of the elements of the strong alpha-cut
+	 */
+	public int[] strongAlphaCut(double alpha) {
+		return Arrays.copyOfRange(order, upperBound(alpha), order.length);
+	}
+	
+	/**
+	 * Returns the domain indices of the elements with a non-zero membership.
+	 */
+	public int[] support() {
+		return strongAlphaCut(0);
+	}
+	
+	/**
+	 * Returns the domain indices of the elements with membership 1.
+	 */
+	public int[] core() {
+		return alphaCut(1);
+	}
+	
+	/**
+	 * Returns the largest membership in the set, or <code>NaN</code> for an empty domain.
+	 */
+	public double height() {
+		return grades.length == 0 ? Double.NaN : grades[grades.length - 1];
+	}
+	
+	/**
+	 * Moves the element at domain index <code>index</code> to the rank of its
+	 * new membership.
+	 */
+	void update(int index, double grade) {
+		int r = rank[index];
+		
+		while (r + 1 < grades.length && compare(grades[r + 1], order[r + 1], grade, index) < 0) {
+			move(r + 1, r);
+			r++;
+		}
+		while (r > 0 && compare(grades[r - 1], order[r - 1], grade, index) > 0) {
+			move(r - 1, r);
+			r--;
+		}
+		
+		grades[r] = grade;
+		order[r] = index;
+		rank[index] = r;
+	}
+	
+	private void move(int from, int to) {
+		grades[to] = grades[from];
+		order[to] = order[from];
+		rank[order[to]] = to;
+	}
+	
+	/**
+	 * Returns the first rank with a grade of at least <code>alpha</code>.
+	 */
+	private int lowerBound(double alpha) {
+		int lo = 0, hi = grades.length;
+		while (lo < hi) {
+			int middle = (lo + hi) >>> 1;
+			if (grades[middle] < alpha) lo = middle + 1;
+			else hi = middle;
+		}
+		
+		return lo;
+	}
+	
+	/**
+	 * Returns the first rank with a grade greater than <code>alpha</code>.
+	 */
+	private int upperBound(double alpha) {
+		int lo = 0, hi = grades.length;
+		while (lo < hi) {
+			int middle = (lo + hi) >>> 1;
+			if (grades[middle] <= alpha) lo = middle + 1;
+			else hi = middle;
+		}
+		
+		return lo;
+	}
+	
+	private static int compare(double grade1, int index1, double grade2, int index2) {
+		int result = Double.compare(grade1, grade2);
+		return result != 0 ? result : Integer.compare(index1, index2);
+	}
+	
+	/**
+	 * Stable bottom-up merge sort of the indices in <code>order</code> by their values.
+	 */
+	private static void sort(int[] order, double[] values) {
+		int n = order.length;
+		int[] source = order, target = new int[n];
+		
+		for (int width = 1; width < n; width *= 2) {
+			for (int lo = 0; lo < n; lo += 2 * width) {
+				int middle = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+				int i = lo, j = middle, k = lo;
+				
+				while (i < middle && j < hi) {
+					target[k++] = Double.compare(values[source[j]], values[source[i]]) < 0 ? source[j++] : source[i++];
+				}
+				while (i < middle) target[k++] = source[i++];
+				while (j < hi) target[k++] = source[j++];
+			}
+			
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		
+		if (source != order) System.arraycopy(source, 0, order, 0, n);
+	}
+	
+}
@@ -0,0 +1,120 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The crisp equivalence classes of a fuzzy equivalence relation over U x U at
+ * every alpha level. Partitions for decreasing alpha are nested, so all of them
+ * are described by the merges of a maximum spanning tree of the relation: the
+ * partition at alpha joins the elements connected by tree edges of grade at
+ * least alpha. Any partition can be recovered in linear time, and the whole
+ * family takes linear memory.
+ */
+public class AlphaLevelPartitions {
+	
+	private SimpleDomain universe;
+	
+	private int[] mergeFrom;
+	
+	private int[] mergeTo;
+	
+	/**
+	 * Grades of the merges, in descending order.
+	 */
+	private double[] mergeGrade;
+	
+	private double[] levels;
+	
+	AlphaLevelPartitions(SimpleDomain universe, int[] mergeFrom, int[] mergeTo, double[] mergeGrade) {
+		this.universe = universe;
+		this.mergeFrom = mergeFrom;
+		this.mergeTo = mergeTo;
+		this.mergeGrade = mergeGrade;
+		
+		int distinct = 0;
+		double[] levels = new double[mergeGrade.length];
+		for (int i = 0; i < mergeGrade.length; i++) {
+			if (distinct == 0 || levels[distinct - 1] != mergeGrade[i]) levels[distinct++] = mergeGrade[i];
+		}
+		
+		this.levels = Arrays.copyOf(levels, distinct);
+	}
+	
+	public SimpleDomain getUniverse() {
+		return universe;
+	}
+	
+	/**
+	 * Returns the alpha levels at which the partition changes, in descending
+	 * order. Between two consecutive levels the partition stays the same.
+	 *
+	 * @return the distinct alpha levels
+	 */
+	public double[] getLevels() {
+		return levels.clone();
+	}
+	
+	/**
+	 * Labels every element of the universe with the class it belongs to in the
+	 * partition of the alpha-cut at <code>alpha</code>. Classes are numbered
+	 * from 0 in the order of their first element.
+	 *
+	 * @param alpha - the alpha level, in (0, 1]
+	 * @return class labels indexed by the element's index in the universe
+	 */
+	public int[] labelsAt(double alpha) {
+		int n = universe.getCardinality();
+		int[] parent = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+		
+		for (int e = 0; e < mergeGrade.length && mergeGrade[e] >= alpha; e++) {
+			int rootFrom = find(parent, mergeFrom[e]);
+			int rootTo = find(parent, mergeTo[e]);
+			if (rootFrom < rootTo) parent[rootTo] = rootFrom;
+			else parent[rootFrom] = rootTo;
+		}
+		
+		int[] labels = new int[n];
+		int[] rootLabel = new int[n];
+		int classes = 0;
+		for (int i = 0; i < n; i++) {
+			int root = find(parent, i);
+			if (root == i) rootLabel[i] = classes++;
+			labels[i] = rootLabel[root];
+		}
+		
+		return labels;
+	}
+	
+	/**
+	 * Returns the equivalence classes of the alpha-cut at <code>alpha</code>.
+	 *
+	 * @param alpha - the alpha level, in (0, 1]
+	 * @return the classes, each as a list of elements of the universe
+	 */
+	public List<List<DomainElement>> classesAt(double alpha) {
+		int[] labels = labelsAt(alpha);
+		List<List<DomainElement>> classes = new ArrayList<>();
+		
+		for (int i = 0; i < labels.length; i++) {
+			if (labels[i] == classes.size()) classes.add(new ArrayList<>());
+			classes.get(labels[i]).add(universe.elementForIndex(i));
+		}
+		
+		return classes;
+	}
+	
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		
+		return i;
+	}
+
+}
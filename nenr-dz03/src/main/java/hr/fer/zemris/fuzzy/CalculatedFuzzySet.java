@@ -1,24 +1,126 @@
 package hr.fer.zemris.fuzzy;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
 public class CalculatedFuzzySet implements IFuzzySet {
 	
+	/**
+	 * How a calculated set caches the values of its membership function.
+	 * All modes are safe to share between threads.
+	 */
+	public enum Materialization {
+		
+		/**
+		 * The membership function is called on every access.
+		 */
+		NONE,
+		
+		/**
+		 * The whole lookup table is built on first access.
+		 */
+		EAGER,
+		
+		/**
+		 * Each entry of the lookup table is computed on its first access.
+		 */
+		LAZY
+		
+	}
+	
+	private static final VarHandle TABLE_ENTRY = MethodHandles.arrayElementVarHandle(double[].class);
+	
 	private IDomain domain;
 	
 	private IIntUnaryFunction membershipFunction;
 	
+	private Materialization materialization;
+	
+	private volatile double[] table;
+	
 	public CalculatedFuzzySet(IDomain domain, IIntUnaryFunction membershipFunction) {
+		this(domain, membershipFunction, Materialization.NONE);
+	}
+	
+	public CalculatedFuzzySet(IDomain domain, IIntUnaryFunction membershipFunction, Materialization materialization) {
 		this.domain = domain;
 		this.membershipFunction = membershipFunction;
+		this.materialization = materialization;
+		
+		if (materialization == Materialization.LAZY) {
+			double[] table = new double[domain.getCardinality()];
+			Arrays.fill(table, Double.NaN);
+			this.table = table;
+		}
 	}
 	
 	@Override
 	public IDomain getDomain() {
 		return domain;
 	}
+	
+	public IIntUnaryFunction getMembershipFunction() {
+		return membershipFunction;
+	}
+	
+	public Materialization getMaterialization() {
+		return materialization;
+	}
 
 	@Override
 	public double getValueAt(DomainElement element) {
-		return membershipFunction.valueAt(domain.indexOfElement(element));
+		return getValueAtIndex(domain.indexOfElement(element));
+	}
+	
+	/**
+	 * Indices outside the domain, such as -1 for an element the domain does
+	 * not contain, bypass the table and go straight to the membership function.
+	 */
+	@Override
+	public double getValueAtIndex(int index) {
+		if (index < 0 || index >= domain.getCardinality())
+			return membershipFunction.valueAt(index);
+		
+		switch (materialization) {
+		case EAGER:
+			return eagerTable()[index];
+		case LAZY:
+			double value = (double) TABLE_ENTRY.getAcquire(table, index);
+			if (Double.isNaN(value)) {
+				value = membershipFunction.valueAt(index);
+				TABLE_ENTRY.setRelease(table, index, value);
+			}
+			return value;
+		default:
+			return membershipFunction.valueAt(index);
+		}
+	}
+	
+	/**
+	 * Returns the complete lookup table of an eagerly materialized set, or
+	 * <code>null</code> in the other modes. The table must not be modified.
+	 */
+	double[] denseTable() {
+		return materialization == Materialization.EAGER ? eagerTable() : null;
+	}
+	
+	private double[] eagerTable() {
+		double[] table = this.table;
+		if (table != null) return table;
+		
+		synchronized (this) {
+			if (this.table == null) {
+				table = new double[domain.getCardinality()];
+				for (int i = 0; i < table.length; i++) {
+					table[i] = membershipFunction.valueAt(i);
+				}
+				
+				this.table = table;
+			}
+			
+			return this.table;
+		}
 	}
 
 	@Override
@@ -26,7 +128,7 @@ public class CalculatedFuzzySet implements IFuzzySet {
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < domain.getCardinality(); i++) {
 			DomainElement element = domain.elementForIndex(i);
-			double value = membershipFunction.valueAt(i);
+			double value = getValueAtIndex(i);
 			
 			if (Math.abs(value) > 10e-6)
 				sb.append("(" + element + ", " + value + ")" + (i == domain.getCardinality() - 1 ? "" : ", "));
@@ -0,0 +1,128 @@
+package hr.fer.zemris.fuzzy;
+
+import static hr.fer.zemris.fuzzy.Operations.*;
+
+/**
+ * Kernels working directly on the fixed-point storage of
+ * {@link CompactFuzzySet}s. Minimum, maximum and the Zadeh complement commute
+ * with quantization, so they are computed on the stored integers without any
+ * rounding. Other functions decode both operands, apply the function and
+ * quantize the result again.
+ */
+final class CompactKernels {
+	
+	private CompactKernels() {}
+	
+	static CompactFuzzySet unary(CompactFuzzySet set, IUnaryFunction function) {
+		CompactFuzzySet result = new CompactFuzzySet(set.getDomain(), set.getBits());
+		int levels = set.getLevels();
+		int n = set.getCardinality();
+		
+		if (function == ZADEH_NOT) {
+			for (int i = 0; i < n; i++) {
+				result.setQuantized(i, levels - set.getQuantized(i));
+			}
+		} else {
+			for (int i = 0; i < n; i++) {
+				result.setQuantized(i, result.encode(function.valueAt(set.decode(set.getQuantized(i)))));
+			}
+		}
+		
+		return result;
+	}
+	
+	static CompactFuzzySet binary(CompactFuzzySet first, CompactFuzzySet second, IBinaryFunction function) {
+		CompactFuzzySet result = new CompactFuzzySet(first.getDomain(), first.getBits());
+		int n = first.getCardinality();
+		
+		if (function == ZADEH_AND) {
+			for (int i = 0; i < n; i++) {
+				result.setQuantized(i, Math.min(first.getQuantized(i), second.getQuantized(i)));
+			}
+		} else if (function == ZADEH_OR) {
+			for (int i = 0; i < n; i++) {
+				result.setQuantized(i, Math.max(first.getQuantized(i), second.getQuantized(i)));
+			}
+		} else {
+			for (int i = 0; i < n; i++) {
+				double value = function.valueAt(first.decode(first.getQuantized(i)), second.decode(second.getQuantized(i)));
+				result.setQuantized(i, result.encode(value));
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the max-min composition of two compact relations of the same
+	 * width on their stored integers, with the blocking and parallel split of
+	 * {@link CompositionEngine}.
+	 */
+	static CompactFuzzySet compose(CompactFuzzySet a, CompactFuzzySet b, IDomain domain, int n, int m, int p) {
+		CompactFuzzySet c = new CompactFuzzySet(domain, a.getBits());
+		long work = (long) n * m * p;
+		
+		if (a.bytes() != null) {
+			byte[] aq = a.bytes(), bq = b.bytes(), cq = c.bytes();
+			CompositionEngine.forEachRowBlock(n, work, (rowFrom, rowTo) -> composeBytes(aq, bq, cq, m, p, rowFrom, rowTo));
+		} else {
+			short[] aq = a.shorts(), bq = b.shorts(), cq = c.shorts();
+			CompositionEngine.forEachRowBlock(n, work, (rowFrom, rowTo) -> composeShorts(aq, bq, cq, m, p, rowFrom, rowTo));
+		}
+		
+		return c;
+	}
+	
+	private static void composeBytes(byte[] a, byte[] b, byte[] c, int m, int p, int rowFrom, int rowTo) {
+		for (int columnBlock = 0; columnBlock < p; columnBlock += CompositionEngine.COLUMN_BLOCK) {
+			int columnEnd = Math.min(columnBlock + CompositionEngine.COLUMN_BLOCK, p);
+			
+			for (int innerBlock = 0; innerBlock < m; innerBlock += CompositionEngine.INNER_BLOCK) {
+				int innerEnd = Math.min(innerBlock + CompositionEngine.INNER_BLOCK, m);
+				
+				for (int i = rowFrom; i < rowTo; i++) {
+					int rowA = i * m;
+					int rowC = i * p;
+					
+					for (int k = innerBlock; k < innerEnd; k++) {
+						int aik = a[rowA + k] & 0xFF;
+						if (aik == 0) continue;
+						
+						int rowB = k * p;
+						for (int j = columnBlock; j < columnEnd; j++) {
+							int value = Math.min(aik, b[rowB + j] & 0xFF);
+							if (value > (c[rowC + j] & 0xFF)) c[rowC + j] = (byte) value;
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private static void composeShorts(short[] a, short[] b, short[] c, int m, int p, int rowFrom, int rowTo) {
+		for (int columnBlock = 0; columnBlock < p; columnBlock += CompositionEngine.COLUMN_BLOCK) {
+			int columnEnd = Math.min(columnBlock + CompositionEngine.COLUMN_BLOCK, p);
+			
+			for (int innerBlock = 0; innerBlock < m; innerBlock += CompositionEngine.INNER_BLOCK) {
+				int innerEnd = Math.min(innerBlock + CompositionEngine.INNER_BLOCK, m);
+				
+				for (int i = rowFrom; i < rowTo; i++) {
+					int rowA = i * m;
+					int rowC = i * p;
+					
+					for (int k = innerBlock; k < innerEnd; k++) {
+						int aik = a[rowA + k] & 0xFFFF;
+						if (aik == 0) continue;
+						
+						int rowB = k * p;
+						for (int j = columnBlock; j < columnEnd; j++) {
+							int value = Math.min(aik, b[rowB + j] & 0xFFFF);
+							if (value > (c[rowC + j] & 0xFFFF)) c[rowC + j] = (short) value;
+						}
+					}
+				}
+			}
+		}
+	}
+	
+}
@@ -1,25 +1,81 @@
 package hr.fer.zemris.fuzzy;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 public class CompositeDomain extends Domain {
 	
 	private SimpleDomain[] components;
 	
+	/**
+	 * Mixed-radix strides of the components; the last component varies fastest,
+	 * which matches the iteration order of this domain.
+	 */
+	private int[] strides;
+	
+	private int cardinality;
+	
+	/**
+	 * Creates the Cartesian product of <code>components</code>.
+	 * 
+	 * @param components - the component domains
+	 * @throws IllegalArgumentException if the product has more than <code>Integer.MAX_VALUE</code> elements
+	 */
 	public CompositeDomain(SimpleDomain... components) {
 		this.components = components;
+		
+		strides = new int[components.length];
+		cardinality = 1;
+		for (int i = components.length - 1; i >= 0; i--) {
+			strides[i] = cardinality;
+			
+			try {
+				cardinality = Math.multiplyExact(cardinality, components[i].getCardinality());
+			} catch (ArithmeticException e) {
+				throw new IllegalArgumentException("Composite domain has more than " + Integer.MAX_VALUE + " elements.", e);
+			}
+		}
 	}
 	
 	@Override
 	public int getCardinality() {
-		int cardinality = 1;
+		return cardinality;
+	}
+	
+	@Override
+	public int indexOfElement(DomainElement element) {
+		if (element == null) return -1;
+		
+		return indexOf(element.values());
+	}
+	
+	@Override
+	public int indexOf(int... values) {
+		if (values.length != components.length) return -1;
+		
+		int index = 0;
 		for (int i = 0; i < components.length; i++) {
-			cardinality *= components[i].getCardinality();
+			int offset = values[i] - components[i].getFirst();
+			if (offset < 0 || offset >= components[i].getCardinality()) return -1;
+			
+			index += offset * strides[i];
 		}
 		
-		return cardinality;
+		return index;
+	}
+	
+	@Override
+	public DomainElement elementForIndex(int index) {
+		if (index < 0 || index >= cardinality) return null;
+		
+		int[] values = new int[components.length];
+		for (int i = 0; i < components.length; i++) {
+			values[i] = components[i].getFirst() + index / strides[i];
+			index %= strides[i];
+		}
+		
+		return new DomainElement(values);
 	}
 
 	@Override
@@ -37,43 +93,35 @@ public class CompositeDomain extends Domain {
 		return new CompositeDomainIterator();
 	}
 	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(components);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof CompositeDomain))
+			return false;
+		CompositeDomain other = (CompositeDomain) obj;
+		return Arrays.equals(components, other.components);
+	}
+	
 	private class CompositeDomainIterator implements Iterator<DomainElement> {
 		
-		private List<Iterator<DomainElement>> componentIterators = new ArrayList<>();
-		
-		private int[] current = new int[components.length];
-		
-		public CompositeDomainIterator() {
-			for (int i = 0; i < components.length; i++) {
-				Iterator<DomainElement> iter = components[i].iterator();
-				componentIterators.add(iter);
-				if (i < components.length - 1) current[i] = iter.next().getComponentValue(0);
-			}
-		}
+		private DomainCursor cursor = cursor();
 		
 		@Override
 		public boolean hasNext() {
-			for (Iterator<DomainElement> iter : componentIterators) {
-				if (iter.hasNext()) return true;
-			}
-			
-			return false;
+			return cursor.getIndex() + 1 < cardinality;
 		}
 
 		@Override
 		public DomainElement next() {
-			int cursor;
-			
-			for (cursor = componentIterators.size() - 1; cursor >= 0; cursor--)
-				if (componentIterators.get(cursor).hasNext()) break;
-			
-			for (int i = cursor + 1; i < componentIterators.size(); i++)
-				componentIterators.set(i, components[i].iterator());
-			
-			for (int i = cursor; i < componentIterators.size(); i++)
-				current[i] = componentIterators.get(i).next().getComponentValue(0);
+			if (!cursor.next()) throw new NoSuchElementException();
 			
-			return new DomainElement(current.clone());
+			return cursor.toElement();
 		}
 		
 	}
@@ -0,0 +1,143 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sup-T and inf-S composition of relations stored as dense row-major matrices. The
+ * product is computed in cache-sized tiles: for a block of result rows the
+ * engine walks the columns in strips of {@link #COLUMN_BLOCK} and the shared
+ * dimension in strips of {@link #INNER_BLOCK}, so the part of the right
+ * operand in use stays in cache while every row of the block is updated.
+ * Blocks of rows are split across the common fork/join pool.
+ */
+final class CompositionEngine {
+	
+	/**
+	 * Width of one strip of result columns.
+	 */
+	static final int COLUMN_BLOCK = 512;
+	
+	/**
+	 * Height of one strip of the shared dimension.
+	 */
+	static final int INNER_BLOCK = 128;
+	
+	/**
+	 * Products with fewer scalar steps than this are computed on the calling thread.
+	 */
+	static final long SEQUENTIAL_THRESHOLD = 1 << 18;
+	
+	private CompositionEngine() {}
+	
+	/**
+	 * Computes the composition of an <code>n x m</code> and an <code>m x p</code>
+	 * matrix with the given kernel.
+	 *
+	 * @param a - the left operand, row-major
+	 * @param b - the right operand, row-major
+	 * @param n - number of rows of <code>a</code>
+	 * @param m - number of columns of <code>a</code> and rows of <code>b</code>
+	 * @param p - number of columns of <code>b</code>
+	 * @param kernel - decides between sup-T and inf-S and the norm used
+	 * @return the <code>n x p</code> composition, row-major
+	 */
+	static double[] compose(double[] a, double[] b, int n, int m, int p, CompositionKernel kernel) {
+		double[] c = new double[n * p];
+		if (kernel.identity != 0) Arrays.fill(c, kernel.identity);
+		
+		forEachRowBlock(n, (long) n * m * p, (rowFrom, rowTo) -> composeRows(a, b, c, m, p, rowFrom, rowTo, kernel));
+		
+		return c;
+	}
+	
+	/**
+	 * Splits rows <code>[0, n)</code> into blocks and computes them on the
+	 * common fork/join pool, or on the calling thread if the whole product
+	 * takes fewer than {@link #SEQUENTIAL_THRESHOLD} scalar steps.
+	 * 
+	 * @param n - number of result rows
+	 * @param work - number of scalar steps of the whole product
+	 * @param block - computes a block of result rows
+	 */
+	static void forEachRowBlock(int n, long work, RowBlock block) {
+		if (work < SEQUENTIAL_THRESHOLD || n <= 1) {
+			block.compute(0, n);
+		} else {
+			int rowsPerTask = Math.max(1, n / (4 * ForkJoinPool.getCommonPoolParallelism()));
+			new RowBlockTask(block, 0, n, rowsPerTask).invoke();
+		}
+	}
+	
+	/**
+	 * Folds rows <code>[rowFrom, rowTo)</code> of the composition into <code>c</code>,
+	 * which must already hold the kernel identity or a partial result.
+	 */
+	static void composeRows(double[] a, double[] b, double[] c, int m, int p, int rowFrom, int rowTo, CompositionKernel kernel) {
+		double identity = kernel.identity;
+		
+		for (int columnBlock = 0; columnBlock < p; columnBlock += COLUMN_BLOCK) {
+			int columnEnd = Math.min(columnBlock + COLUMN_BLOCK, p);
+			
+			for (int innerBlock = 0; innerBlock < m; innerBlock += INNER_BLOCK) {
+				int innerEnd = Math.min(innerBlock + INNER_BLOCK, m);
+				
+				for (int i = rowFrom; i < rowTo; i++) {
+					int rowA = i * m;
+					int rowC = i * p;
+					
+					for (int k = innerBlock; k < innerEnd; k++) {
+						double aik = a[rowA + k];
+						if (aik == identity) continue;
+						
+						kernel.accumulate(aik, b, k * p, c, rowC, columnBlock, columnEnd);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Computation of a block of result rows <code>[rowFrom, rowTo)</code>.
+	 */
+	interface RowBlock {
+		
+		void compute(int rowFrom, int rowTo);
+		
+	}
+	
+	private static class RowBlockTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final RowBlock block;
+		
+		private final int rowFrom;
+		
+		private final int rowTo;
+		
+		private final int rowsPerTask;
+		
+		RowBlockTask(RowBlock block, int rowFrom, int rowTo, int rowsPerTask) {
+			this.block = block;
+			this.rowFrom = rowFrom;
+			this.rowTo = rowTo;
+			this.rowsPerTask = rowsPerTask;
+		}
+		
+		@Override
+		protected void compute() {
+			if (rowTo - rowFrom <= rowsPerTask) {
+				block.compute(rowFrom, rowTo);
+				return;
+			}
+			
+			int middle = (rowFrom + rowTo) >>> 1;
+			invokeAll(new RowBlockTask(block, rowFrom, middle, rowsPerTask),
+					new RowBlockTask(block, middle, rowTo, rowsPerTask));
+		}
+		
+	}
+
+}
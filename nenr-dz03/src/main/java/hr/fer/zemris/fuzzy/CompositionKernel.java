@@ -0,0 +1,234 @@
+package hr.fer.zemris.fuzzy;
+
+import static hr.fer.zemris.fuzzy.Operations.*;
+
+/**
+ * The inner loop of a relation composition. A kernel folds one entry of the
+ * left operand, combined with a strip of a row of the right operand, into a
+ * strip of a result row. Sup-T kernels combine with a t-norm and keep the
+ * maximum, inf-S kernels combine with an s-norm and keep the minimum.
+ * <p>
+ * The norms from {@link Operations} get kernels with the norm written out in
+ * the loop, so only one virtual call is made per strip. Any other function is
+ * called through {@link IBinaryFunction} for every element.
+ */
+abstract class CompositionKernel {
+	
+	/**
+	 * The starting value of every result element and at the same time the
+	 * value of a left operand entry that cannot change the result: 0 for
+	 * sup-T composition, 1 for inf-S composition.
+	 */
+	final double identity;
+	
+	private CompositionKernel(double identity) {
+		this.identity = identity;
+	}
+	
+	/**
+	 * Folds <code>aik</code> combined with <code>b[rowB + j]</code> into
+	 * <code>c[rowC + j]</code> for every <code>j</code> in <code>[from, to)</code>.
+	 */
+	abstract void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to);
+	
+	static CompositionKernel supT(IBinaryFunction tNorm) {
+		if (tNorm == ZADEH_AND) return new SupMin();
+		if (tNorm == ALGEBRAIC_PRODUCT) return new SupProduct();
+		if (tNorm == LUKASIEWICZ_AND) return new SupLukasiewicz();
+		if (tNorm instanceof HamacherTNorm) return new SupHamacher(((HamacherTNorm) tNorm).nu);
+		
+		return new SupGeneric(tNorm);
+	}
+	
+	static CompositionKernel infS(IBinaryFunction sNorm) {
+		if (sNorm == ZADEH_OR) return new InfMax();
+		if (sNorm == ALGEBRAIC_SUM) return new InfAlgebraicSum();
+		if (sNorm == LUKASIEWICZ_OR) return new InfLukasiewicz();
+		if (sNorm instanceof HamacherSNorm) return new InfHamacher(((HamacherSNorm) sNorm).nu);
+		
+		return new InfGeneric(sNorm);
+	}
+	
+	private static class SupMin extends CompositionKernel {
+		
+		SupMin() {
+			super(0);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = Math.min(aik, b[rowB + j]);
+				if (value > c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class SupProduct extends CompositionKernel {
+		
+		SupProduct() {
+			super(0);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = aik * b[rowB + j];
+				if (value > c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class SupLukasiewicz extends CompositionKernel {
+		
+		SupLukasiewicz() {
+			super(0);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = aik + b[rowB + j] - 1;
+				if (value > c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class SupHamacher extends CompositionKernel {
+		
+		private final double nu;
+		
+		SupHamacher(double nu) {
+			super(0);
+			this.nu = nu;
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			double oneMinusNu = 1 - nu;
+			
+			for (int j = from; j < to; j++) {
+				double bkj = b[rowB + j];
+				double numerator = aik * bkj;
+				double value = numerator / (nu + oneMinusNu / (aik + bkj - numerator));
+				if (value > c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class SupGeneric extends CompositionKernel {
+		
+		private final IBinaryFunction tNorm;
+		
+		SupGeneric(IBinaryFunction tNorm) {
+			super(0);
+			this.tNorm = tNorm;
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = tNorm.valueAt(aik, b[rowB + j]);
+				if (value > c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class InfMax extends CompositionKernel {
+		
+		InfMax() {
+			super(1);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = Math.max(aik, b[rowB + j]);
+				if (value < c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class InfAlgebraicSum extends CompositionKernel {
+		
+		InfAlgebraicSum() {
+			super(1);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double bkj = b[rowB + j];
+				double value = aik + bkj - aik * bkj;
+				if (value < c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class InfLukasiewicz extends CompositionKernel {
+		
+		InfLukasiewicz() {
+			super(1);
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = aik + b[rowB + j];
+				if (value < c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class InfHamacher extends CompositionKernel {
+		
+		private final double nu;
+		
+		InfHamacher(double nu) {
+			super(1);
+			this.nu = nu;
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			double twoMinusNu = 2 - nu;
+			double oneMinusNu = 1 - nu;
+			
+			for (int j = from; j < to; j++) {
+				double bkj = b[rowB + j];
+				double product = aik * bkj;
+				double value = (aik + bkj - twoMinusNu * product) / (1 - oneMinusNu * product);
+				if (value < c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+	private static class InfGeneric extends CompositionKernel {
+		
+		private final IBinaryFunction sNorm;
+		
+		InfGeneric(IBinaryFunction sNorm) {
+			super(1);
+			this.sNorm = sNorm;
+		}
+		
+		@Override
+		void accumulate(double aik, double[] b, int rowB, double[] c, int rowC, int from, int to) {
+			for (int j = from; j < to; j++) {
+				double value = sNorm.valueAt(aik, b[rowB + j]);
+				if (value < c[rowC + j]) c[rowC + j] = value;
+			}
+		}
+		
+	}
+	
+}
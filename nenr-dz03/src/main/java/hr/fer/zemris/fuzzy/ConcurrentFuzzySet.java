@@ -0,0 +1,145 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fuzzy set that many threads can update at the same time. Memberships are
+ * stored as the bits of doubles in an {@link AtomicLongArray}, and the
+ * accumulating updates are lock-free compare-and-set loops on one element, so
+ * parallel producers can reduce into one set without per-thread copies. An
+ * update of the maximum or minimum that does not change the element returns
+ * after a single read.
+ * <p>
+ * A new set starts at 0 everywhere, which suits maximum and sum reductions.
+ * Min-reductions should start from 1 with
+ * {@link #ConcurrentFuzzySet(IDomain, double)}.
+ */
+public class ConcurrentFuzzySet implements IFuzzySet {
+	
+	private IDomain domain;
+	
+	private AtomicLongArray memberships;
+	
+	public ConcurrentFuzzySet(IDomain domain) {
+		this.domain = domain;
+		memberships = new AtomicLongArray(domain.getCardinality());
+	}
+	
+	/**
+	 * Creates a set with every membership equal to <code>initial</code>.
+	 * 
+	 * @param domain - domain of the set
+	 * @param initial - the starting membership of every element
+	 */
+	public ConcurrentFuzzySet(IDomain domain, double initial) {
+		this(domain);
+		
+		long bits = Double.doubleToRawLongBits(initial);
+		for (int i = 0; i < memberships.length(); i++) {
+			memberships.set(i, bits);
+		}
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return getValueAtIndex(domain.indexOfElement(element));
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		return Double.longBitsToDouble(memberships.get(index));
+	}
+	
+	public ConcurrentFuzzySet set(DomainElement element, double membership) {
+		memberships.set(domain.indexOfElement(element), Double.doubleToRawLongBits(membership));
+		return this;
+	}
+	
+	/**
+	 * Atomically raises the membership of <code>element</code> to
+	 * <code>membership</code> if it is lower.
+	 * 
+	 * @param element - the element to update
+	 * @param membership - the candidate membership
+	 * @return the membership after the update
+	 */
+	public double accumulateMax(DomainElement element, double membership) {
+		return accumulateMax(domain.indexOfElement(element), membership);
+	}
+	
+	public double accumulateMax(int index, double membership) {
+		while (true) {
+			long bits = memberships.get(index);
+			double current = Double.longBitsToDouble(bits);
+			if (!(membership > current)) return current;
+			if (memberships.compareAndSet(index, bits, Double.doubleToRawLongBits(membership))) return membership;
+		}
+	}
+	
+	/**
+	 * Atomically lowers the membership of <code>element</code> to
+	 * <code>membership</code> if it is higher.
+	 * 
+	 * @param element - the element to update
+	 * @param membership - the candidate membership
+	 * @return the membership after the update
+	 */
+	public double accumulateMin(DomainElement element, double membership) {
+		return accumulateMin(domain.indexOfElement(element), membership);
+	}
+	
+	public double accumulateMin(int index, double membership) {
+		while (true) {
+			long bits = memberships.get(index);
+			double current = Double.longBitsToDouble(bits);
+			if (!(membership < current)) return current;
+			if (memberships.compareAndSet(index, bits, Double.doubleToRawLongBits(membership))) return membership;
+		}
+	}
+	
+	/**
+	 * Atomically adds <code>amount</code> to the membership of <code>element</code>.
+	 * The sum is not clipped to [0, 1].
+	 * 
+	 * @param element - the element to update
+	 * @param amount - the amount to add
+	 * @return the membership after the update
+	 */
+	public double accumulateSum(DomainElement element, double amount) {
+		return accumulateSum(domain.indexOfElement(element), amount);
+	}
+	
+	public double accumulateSum(int index, double amount) {
+		while (true) {
+			long bits = memberships.get(index);
+			double sum = Double.longBitsToDouble(bits) + amount;
+			if (memberships.compareAndSet(index, bits, Double.doubleToRawLongBits(sum))) return sum;
+		}
+	}
+	
+	/**
+	 * Copies the current memberships into a dense set. Updates that run
+	 * concurrently with the copy may or may not be included.
+	 * 
+	 * @return a dense copy of this set
+	 */
+	public MutableFuzzySet snapshot() {
+		double[] copy = new double[memberships.length()];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = getValueAtIndex(i);
+		}
+		
+		return new MutableFuzzySet(domain, copy);
+	}
+	
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+	
+}
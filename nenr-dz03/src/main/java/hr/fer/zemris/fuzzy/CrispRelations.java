@@ -0,0 +1,159 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * Composition and transitive closure of crisp relations stored as
+ * {@link CrispSet}s. A relation over U x V is handled as a bit matrix with
+ * one row of 64-bit words per element of U, so OR-ing a whole row takes
+ * |V| / 64 steps. Rows are processed in parallel on the common fork/join
+ * pool.
+ */
+public class CrispRelations {
+	
+	/**
+	 * Computes the composition of <code>r1</code> over U x V and
+	 * <code>r2</code> over V x W: (x, z) is related if there is a y with
+	 * (x, y) in <code>r1</code> and (y, z) in <code>r2</code>.
+	 * 
+	 * @param r1 - relation over U x V
+	 * @param r2 - relation over V x W
+	 * @return the composed relation over U x W
+	 * @throws IllegalArgumentException if the relations are not binary or do not share V
+	 */
+	public static CrispSet composition(CrispSet r1, CrispSet r2) {
+		IDomain r1Domain = r1.getDomain();
+		IDomain r2Domain = r2.getDomain();
+		if (r1Domain.getNumberOfComponents() != 2 || r2Domain.getNumberOfComponents() != 2
+				|| !r1Domain.getComponent(1).equals(r2Domain.getComponent(0)))
+			throw new IllegalArgumentException("Composition needs relations over U x V and V x W.");
+		
+		int n = r1Domain.getComponent(0).getCardinality();
+		int m = r1Domain.getComponent(1).getCardinality();
+		int p = r2Domain.getComponent(1).getCardinality();
+		int strideM = CrispSet.wordCount(m);
+		int strideP = CrispSet.wordCount(p);
+		
+		long[] a = toRows(r1.words(), n, m);
+		long[] b = toRows(r2.words(), m, p);
+		long[] c = new long[n * strideP];
+		
+		CompositionEngine.forEachRowBlock(n, (long) n * m * strideP, (rowFrom, rowTo) -> {
+			for (int i = rowFrom; i < rowTo; i++) {
+				int rowA = i * strideM;
+				int rowC = i * strideP;
+				
+				for (int w = 0; w < strideM; w++) {
+					long word = a[rowA + w];
+					while (word != 0) {
+						int k = (w << 6) + Long.numberOfTrailingZeros(word);
+						word &= word - 1;
+						
+						int rowB = k * strideP;
+						for (int j = 0; j < strideP; j++) {
+							c[rowC + j] |= b[rowB + j];
+						}
+					}
+				}
+			}
+		});
+		
+		IDomain domain = Domain.combine(r1Domain.getComponent(0), r2Domain.getComponent(1));
+		return new CrispSet(domain, fromRows(c, n, p));
+	}
+	
+	/**
+	 * Computes the transitive closure of a relation over U x U with
+	 * Warshall's algorithm on 64-bit words, in O(|U|^3 / 64) steps.
+	 * 
+	 * @param relation - relation over U x U
+	 * @return the smallest transitive relation containing <code>relation</code>
+	 * @throws IllegalArgumentException if <code>relation</code> is not over U x U
+	 */
+	public static CrispSet transitiveClosure(CrispSet relation) {
+		if (!Relations.isUTimesURelation(relation))
+			throw new IllegalArgumentException("Transitive closure is defined only for relations over U x U.");
+		
+		int n = relation.getDomain().getComponent(0).getCardinality();
+		int stride = CrispSet.wordCount(n);
+		long[] r = toRows(relation.words(), n, n);
+		
+		for (int pivot = 0; pivot < n; pivot++) {
+			int k = pivot;
+			int rowK = k * stride;
+			int wordK = k >>> 6;
+			long bitK = 1L << k;
+			
+			CompositionEngine.forEachRowBlock(n, (long) n * stride, (rowFrom, rowTo) -> {
+				for (int i = rowFrom; i < rowTo; i++) {
+					int rowI = i * stride;
+					if ((r[rowI + wordK] & bitK) == 0 || i == k) continue;
+					
+					for (int j = 0; j < stride; j++) {
+						r[rowI + j] |= r[rowK + j];
+					}
+				}
+			});
+		}
+		
+		return new CrispSet(relation.getDomain(), fromRows(r, n, n));
+	}
+	
+	/**
+	 * Copies a bitset of <code>n</code> rows of <code>p</code> bits each into
+	 * rows aligned to whole words.
+	 */
+	static long[] toRows(long[] bits, int n, int p) {
+		int stride = CrispSet.wordCount(p);
+		long[] rows = new long[n * stride];
+		int tail = p & 63;
+		
+		for (int i = 0; i < n; i++) {
+			long offset = (long) i * p;
+			for (int w = 0; w < stride; w++) {
+				long word = bitsAt(bits, offset + ((long) w << 6));
+				if (w == stride - 1 && tail != 0) word &= (1L << tail) - 1;
+				rows[i * stride + w] = word;
+			}
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Packs <code>n</code> word-aligned rows of <code>p</code> bits each back into one bitset.
+	 */
+	static long[] fromRows(long[] rows, int n, int p) {
+		int stride = CrispSet.wordCount(p);
+		long[] bits = new long[CrispSet.wordCount(n * p)];
+		
+		for (int i = 0; i < n; i++) {
+			long offset = (long) i * p;
+			for (int w = 0; w < stride; w++) {
+				orBitsAt(bits, offset + ((long) w << 6), rows[i * stride + w]);
+			}
+		}
+		
+		return bits;
+	}
+	
+	/**
+	 * Reads the 64 bits starting at bit <code>offset</code>, with zeros past the end.
+	 */
+	private static long bitsAt(long[] bits, long offset) {
+		int w = (int) (offset >>> 6);
+		int shift = (int) (offset & 63);
+		
+		long word = bits[w] >>> shift;
+		if (shift != 0 && w + 1 < bits.length) word |= bits[w + 1] << (64 - shift);
+		
+		return word;
+	}
+	
+	private static void orBitsAt(long[] bits, long offset, long word) {
+		int w = (int) (offset >>> 6);
+		int shift = (int) (offset & 63);
+		
+		bits[w] |= word << shift;
+		if (shift != 0 && w + 1 < bits.length) bits[w + 1] |= word >>> (64 - shift);
+	}
+	
+}
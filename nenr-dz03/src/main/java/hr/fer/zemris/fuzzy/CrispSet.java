@@ -0,0 +1,202 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A crisp subset of a domain stored as a bitset, one bit for every element in
+ * the domain's iteration order, packed into <code>long</code> words. As a
+ * fuzzy set it has membership 1 for its elements and 0 elsewhere. Union,
+ * intersection and complement work on 64 elements per step, and
+ * {@link CrispRelations} composes and closes crisp relations as bit matrices.
+ */
+public class CrispSet implements IFuzzySet {
+	
+	private IDomain domain;
+	
+	private long[] words;
+	
+	public CrispSet(IDomain domain) {
+		this(domain, new long[wordCount(domain.getCardinality())]);
+	}
+	
+	CrispSet(IDomain domain, long[] words) {
+		this.domain = domain;
+		this.words = words;
+	}
+	
+	/**
+	 * Returns the alpha-cut of <code>set</code>, the elements with a membership of at least <code>alpha</code>.
+	 * 
+	 * @param set - the fuzzy set to cut
+	 * @param alpha - the alpha level
+	 * @return the alpha-cut
+	 */
+	public static CrispSet alphaCut(IFuzzySet set, double alpha) {
+		return cut(set, alpha, false);
+	}
+	
+	/**
+	 * Returns the strong alpha-cut of <code>set</code>, the elements with a membership greater than <code>alpha</code>.
+	 * 
+	 * @param set - the fuzzy set to cut
+	 * @param alpha - the alpha level
+	 * @return the strong alpha-cut
+	 */
+	public static CrispSet strongAlphaCut(IFuzzySet set, double alpha) {
+		return cut(set, alpha, true);
+	}
+	
+	/**
+	 * Returns the alpha-cut answered by an alpha-cut index, touching only the elements of the cut.
+	 * 
+	 * @param index - the index of a fuzzy set
+	 * @param alpha - the alpha level
+	 * @return the alpha-cut
+	 */
+	public static CrispSet alphaCut(AlphaCutIndex index, double alpha) {
+		CrispSet cut = new CrispSet(index.getDomain());
+		for (int i : index.alphaCut(alpha)) {
+			cut.words[i >>> 6] |= 1L << i;
+		}
+		
+		return cut;
+	}
+	
+	private static CrispSet cut(IFuzzySet set, double alpha, boolean strong) {
+		IDomain domain = set.getDomain();
+		int n = domain.getCardinality();
+		long[] words = new long[wordCount(n)];
+		double[] memberships = set instanceof MutableFuzzySet ? ((MutableFuzzySet) set).memberships() : null;
+		
+		for (int i = 0; i < n; i++) {
+			double value = memberships != null ? memberships[i] : set.getValueAtIndex(i);
+			if (strong ? value > alpha : value >= alpha) words[i >>> 6] |= 1L << i;
+		}
+		
+		return new CrispSet(domain, words);
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return contains(element) ? 1 : 0;
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		return contains(index) ? 1 : 0;
+	}
+	
+	public boolean contains(DomainElement element) {
+		int index = domain.indexOfElement(element);
+		return index >= 0 && contains(index);
+	}
+	
+	public boolean contains(int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+	
+	public CrispSet add(DomainElement element) {
+		int index = domain.indexOfElement(element);
+		words[index >>> 6] |= 1L << index;
+		return this;
+	}
+	
+	public CrispSet remove(DomainElement element) {
+		int index = domain.indexOfElement(element);
+		words[index >>> 6] &= ~(1L << index);
+		return this;
+	}
+	
+	/**
+	 * Returns the number of elements in this set.
+	 */
+	public int size() {
+		int size = 0;
+		for (long word : words) {
+			size += Long.bitCount(word);
+		}
+		
+		return size;
+	}
+	
+	/**
+	 * Returns the smallest index of an element of this set that is at least
+	 * <code>from</code>, or -1 if there is none.
+	 * 
+	 * @param from - the index to start from
+	 * @return index of the next element, or -1
+	 */
+	public int nextIndex(int from) {
+		if (from < 0) from = 0;
+		int w = from >>> 6;
+		if (w >= words.length) return -1;
+		
+		long word = words[w] & (-1L << from);
+		while (word == 0) {
+			if (++w == words.length) return -1;
+			word = words[w];
+		}
+		
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+	
+	public CrispSet union(CrispSet other) {
+		checkDomain(other);
+		long[] result = new long[words.length];
+		for (int w = 0; w < words.length; w++) {
+			result[w] = words[w] | other.words[w];
+		}
+		
+		return new CrispSet(domain, result);
+	}
+	
+	public CrispSet intersection(CrispSet other) {
+		checkDomain(other);
+		long[] result = new long[words.length];
+		for (int w = 0; w < words.length; w++) {
+			result[w] = words[w] & other.words[w];
+		}
+		
+		return new CrispSet(domain, result);
+	}
+	
+	public CrispSet complement() {
+		long[] result = new long[words.length];
+		for (int w = 0; w < words.length; w++) {
+			result[w] = ~words[w];
+		}
+		
+		int tail = domain.getCardinality() & 63;
+		if (tail != 0) result[result.length - 1] &= (1L << tail) - 1;
+		
+		return new CrispSet(domain, result);
+	}
+	
+	long[] words() {
+		return words;
+	}
+	
+	static int wordCount(int bits) {
+		return (bits + 63) >>> 6;
+	}
+	
+	private void checkDomain(CrispSet other) {
+		if (!domain.equals(other.domain))
+			throw new IllegalArgumentException("Crisp sets must be defined over the same domain.");
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+			if (sb.length() > 0) sb.append(", ");
+			sb.append(domain.elementForIndex(i));
+		}
+		
+		return sb.toString();
+	}
+	
+}
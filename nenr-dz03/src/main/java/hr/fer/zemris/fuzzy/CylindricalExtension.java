@@ -0,0 +1,105 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Objects;
+
+/**
+ * The cylindrical extension of a fuzzy set to a domain with more components,
+ * as a view: the membership of an element is that of its projection onto the
+ * components of the original set. Nothing is materialized. The index of the
+ * original element is computed from per-component strides, which are 0 for
+ * the components the set is broadcast along.
+ */
+public class CylindricalExtension implements IFuzzySet {
+	
+	private IFuzzySet set;
+	
+	private IDomain domain;
+	
+	/**
+	 * Cardinality of every component of the domain.
+	 */
+	private int[] size;
+	
+	/**
+	 * Stride of every component of the domain in the index of the original set.
+	 */
+	private int[] stride;
+	
+	/**
+	 * Creates the extension of <code>set</code> to <code>domain</code>.
+	 * 
+	 * @param set - the set to extend
+	 * @param domain - the larger domain
+	 * @param components - for every component of the set's domain, the position of the same component in <code>domain</code>
+	 * @throws IllegalArgumentException if the components do not match
+	 */
+	public CylindricalExtension(IFuzzySet set, IDomain domain, int... components) {
+		IDomain setDomain = set.getDomain();
+		if (components.length != setDomain.getNumberOfComponents())
+			throw new IllegalArgumentException("Expected a position for each of the " + setDomain.getNumberOfComponents()
+					+ " components of the set.");
+		
+		int k = domain.getNumberOfComponents();
+		size = new int[k];
+		stride = new int[k];
+		for (int c = 0; c < k; c++) {
+			size[c] = domain.getComponent(c).getCardinality();
+		}
+		
+		boolean[] used = new boolean[k];
+		int setStride = 1;
+		for (int i = components.length - 1; i >= 0; i--) {
+			int c = components[i];
+			if (c < 0 || c >= k || used[c] || !domain.getComponent(c).equals(setDomain.getComponent(i)))
+				throw new IllegalArgumentException("Component " + i + " of the set does not match component " + c + " of the domain.");
+			
+			used[c] = true;
+			stride[c] = setStride;
+			setStride *= size[c];
+		}
+		
+		this.set = set;
+		this.domain = domain;
+	}
+	
+	public IFuzzySet getSet() {
+		return set;
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return getValueAtIndex(domain.indexOfElement(element));
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		Objects.checkIndex(index, domain.getCardinality());
+		
+		int original = 0;
+		for (int c = size.length - 1; c >= 0; c--) {
+			original += index % size[c] * stride[c];
+			index /= size[c];
+		}
+		
+		return set.getValueAtIndex(original);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < domain.getCardinality(); i++) {
+			double value = getValueAtIndex(i);
+			
+			if (Math.abs(value) > 10e-6)
+				sb.append("(" + domain.elementForIndex(i) + ", " + value + ")" + (i == domain.getCardinality() - 1 ? "" : ", "));
+		}
+		
+		return sb.toString();
+	}
+	
+}
@@ -7,8 +7,9 @@ public class Debug {
 			System.out.println(headingText);
 		}
 
-		for (DomainElement e : domain) {
-			System.out.println("Element domene: " + e);
+		DomainCursor cursor = domain.cursor();
+		while (cursor.next()) {
+			System.out.println("Element domene: " + cursor);
 		}
 
 		System.out.println("Kardinalitet domene je: " + domain.getCardinality());
@@ -20,9 +21,9 @@ public class Debug {
 			System.out.println(headingText);
 		}
 
-		IDomain domain = set.getDomain();
-		for (DomainElement e : domain) {
-			System.out.println("d(" + e + ")=" + String.format("%.6f", set.getValueAt(e)));
+		DomainCursor cursor = set.getDomain().cursor();
+		while (cursor.next()) {
+			System.out.println("d(" + cursor + ")=" + String.format("%.6f", set.getValueAtIndex(cursor.getIndex())));
 		}
 
 		System.out.println();
@@ -0,0 +1,76 @@
+package hr.fer.zemris.fuzzy;
+
+import static hr.fer.zemris.fuzzy.Operations.*;
+
+/**
+ * Element-wise kernels over dense membership arrays. The built-in norms get
+ * their own tight loops so the inner loop neither dispatches through
+ * {@link IBinaryFunction} nor looks up domain indices; such loops are simple
+ * enough for the JIT to unroll and auto-vectorize. Any other function falls
+ * back to a plain loop over the arrays.
+ */
+final class DenseKernels {
+	
+	private DenseKernels() {}
+	
+	static double[] unary(double[] a, IUnaryFunction function) {
+		double[] result = new double[a.length];
+		
+		if (function == ZADEH_NOT) {
+			for (int i = 0; i < a.length; i++) {
+				result[i] = 1 - a[i];
+			}
+		} else {
+			for (int i = 0; i < a.length; i++) {
+				result[i] = function.valueAt(a[i]);
+			}
+		}
+		
+		return result;
+	}
+	
+	static double[] binary(double[] a, double[] b, IBinaryFunction function) {
+		double[] result = new double[a.length];
+		
+		if (function == ZADEH_AND) {
+			for (int i = 0; i < a.length; i++) {
+				result[i] = Math.min(a[i], b[i]);
+			}
+		} else if (function == ZADEH_OR) {
+			for (int i = 0; i < a.length; i++) {
+				result[i] = Math.max(a[i], b[i]);
+			}
+		} else if (function instanceof HamacherTNorm) {
+			hamacherTNorm(a, b, result, ((HamacherTNorm) function).nu);
+		} else if (function instanceof HamacherSNorm) {
+			hamacherSNorm(a, b, result, ((HamacherSNorm) function).nu);
+		} else {
+			for (int i = 0; i < a.length; i++) {
+				result[i] = function.valueAt(a[i], b[i]);
+			}
+		}
+		
+		return result;
+	}
+	
+	private static void hamacherTNorm(double[] a, double[] b, double[] result, double nu) {
+		double oneMinusNu = 1 - nu;
+		
+		for (int i = 0; i < a.length; i++) {
+			double numerator = a[i] * b[i];
+			double denominator = nu + oneMinusNu / (a[i] + b[i] - numerator);
+			result[i] = numerator / denominator;
+		}
+	}
+	
+	private static void hamacherSNorm(double[] a, double[] b, double[] result, double nu) {
+		double twoMinusNu = 2 - nu;
+		double oneMinusNu = 1 - nu;
+		
+		for (int i = 0; i < a.length; i++) {
+			double product = a[i] * b[i];
+			result[i] = (a[i] + b[i] - twoMinusNu * product) / (1 - oneMinusNu * product);
+		}
+	}
+	
+}
@@ -0,0 +1,105 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An allocation-free traversal of an {@link IDomain}. The cursor walks the
+ * domain in iteration order (last component varies fastest) and exposes the
+ * current index and component values as primitives. Component values are kept
+ * in one buffer that is updated in place on every step.
+ */
+public class DomainCursor {
+	
+	private int[] first;
+	
+	private int[] last;
+	
+	private int[] values;
+	
+	private int index = -1;
+	
+	private int cardinality;
+	
+	public DomainCursor(IDomain domain) {
+		int n = domain.getNumberOfComponents();
+		first = new int[n];
+		last = new int[n];
+		values = new int[n];
+		
+		for (int i = 0; i < n; i++) {
+			SimpleDomain component = domain.getComponent(i);
+			first[i] = component.getFirst();
+			last[i] = component.getLast();
+		}
+		
+		cardinality = domain.getCardinality();
+	}
+	
+	/**
+	 * Moves the cursor to the next element of the domain.
+	 * 
+	 * @return <code>true</code> if the cursor now points at an element,
+	 *         <code>false</code> if the domain is exhausted
+	 */
+	public boolean next() {
+		if (index + 1 >= cardinality) {
+			index = cardinality;
+			return false;
+		}
+		
+		if (++index == 0) {
+			System.arraycopy(first, 0, values, 0, values.length);
+			return true;
+		}
+		
+		for (int i = values.length - 1; i >= 0; i--) {
+			if (++values[i] < last[i]) break;
+			values[i] = first[i];
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Moves the cursor back before the first element of the domain.
+	 */
+	public void reset() {
+		index = -1;
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	
+	public int getNumberOfComponents() {
+		return values.length;
+	}
+	
+	public int getComponentValue(int component) {
+		checkPosition();
+		return values[component];
+	}
+	
+	/**
+	 * Creates a domain element for the current position. Unlike the rest of
+	 * the cursor this allocates, so it is meant for results, not for scanning.
+	 * 
+	 * @return the element the cursor points at
+	 */
+	public DomainElement toElement() {
+		checkPosition();
+		return new DomainElement(values.clone());
+	}
+	
+	@Override
+	public String toString() {
+		checkPosition();
+		return DomainElement.toString(values);
+	}
+	
+	private void checkPosition() {
+		if (index < 0 || index >= cardinality)
+			throw new NoSuchElementException("The cursor does not point at a domain element.");
+	}
+	
+}
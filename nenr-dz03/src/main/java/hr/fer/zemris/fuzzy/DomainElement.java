@@ -22,6 +22,13 @@ public class DomainElement {
 	public int getComponentValue(int index) {
 		return values[index];
 	}
+	
+	/**
+	 * Returns the component values themselves, which must not be modified.
+	 */
+	int[] values() {
+		return values;
+	}
 
 	public static DomainElement of(int... values) {
 		return new DomainElement(values);
@@ -29,6 +36,10 @@ public class DomainElement {
 
 	@Override
 	public String toString() {
+		return toString(values);
+	}
+	
+	static String toString(int[] values) {
 		if (values.length == 1) return String.valueOf(values[0]);
 		
 		StringBuilder sb = new StringBuilder("(");
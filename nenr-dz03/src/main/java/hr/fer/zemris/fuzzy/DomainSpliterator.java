@@ -0,0 +1,63 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the elements of a domain with indices in
+ * <code>[from, to)</code>. Splitting halves the index range, and elements are
+ * created directly from their index, so both halves are traversed
+ * independently and exactly sized.
+ */
+class DomainSpliterator implements Spliterator<DomainElement> {
+	
+	private final IDomain domain;
+	
+	private int from;
+	
+	private final int to;
+	
+	DomainSpliterator(IDomain domain, int from, int to) {
+		this.domain = domain;
+		this.from = from;
+		this.to = to;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super DomainElement> action) {
+		if (from >= to) return false;
+		
+		action.accept(domain.elementForIndex(from++));
+		return true;
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super DomainElement> action) {
+		int end = to;
+		for (int i = from; i < end; i++) {
+			action.accept(domain.elementForIndex(i));
+		}
+		from = end;
+	}
+	
+	@Override
+	public Spliterator<DomainElement> trySplit() {
+		int middle = (from + to) >>> 1;
+		if (middle <= from) return null;
+		
+		DomainSpliterator prefix = new DomainSpliterator(domain, from, middle);
+		from = middle;
+		return prefix;
+	}
+	
+	@Override
+	public long estimateSize() {
+		return to - from;
+	}
+	
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+	}
+	
+}
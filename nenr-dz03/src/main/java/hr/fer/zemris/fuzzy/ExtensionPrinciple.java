@@ -0,0 +1,187 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The extension principle for functions of several variables:
+ * <code>mu_B(y) = sup { min_i mu_Ai(x_i) : f(x_1, ..., x_n) = y }</code>.
+ * <p>
+ * Only the product of the supports of the inputs is enumerated, since any
+ * tuple with a zero membership contributes nothing, which for sparse inputs
+ * removes most of the product domain. The product is walked as a flat index
+ * range split into blocks on the common fork/join pool. Every block folds
+ * into its own result array, and the arrays are merged with max when the
+ * blocks join.
+ */
+public final class ExtensionPrinciple {
+	
+	/**
+	 * Products with fewer tuples than this are evaluated on the calling thread.
+	 */
+	static final long SEQUENTIAL_THRESHOLD = 1 << 16;
+	
+	private ExtensionPrinciple() {}
+	
+	/**
+	 * Extends <code>function</code> to fuzzy arguments.
+	 * 
+	 * @param function - the crisp function, called with one value from each input's domain
+	 * @param domain - simple domain of the result; values of <code>function</code> outside it are ignored
+	 * @param inputs - fuzzy sets over simple domains, one for each argument
+	 * @return the image of the inputs under <code>function</code>
+	 * @throws IllegalArgumentException if a domain is not simple or there are no inputs
+	 */
+	public static IFuzzySet apply(IIntVectorFunction function, IDomain domain, IFuzzySet... inputs) {
+		if (domain.getNumberOfComponents() != 1)
+			throw new IllegalArgumentException("The extension principle is implemented for results over simple domains.");
+		if (inputs.length == 0)
+			throw new IllegalArgumentException("The extension principle needs at least one input.");
+		
+		int arity = inputs.length;
+		int[][] values = new int[arity][];
+		double[][] grades = new double[arity][];
+		long total = 1;
+		
+		for (int i = 0; i < arity; i++) {
+			IDomain inputDomain = inputs[i].getDomain();
+			if (inputDomain.getNumberOfComponents() != 1)
+				throw new IllegalArgumentException("Inputs of the extension principle must be over simple domains.");
+			
+			support(inputs[i], values, grades, i);
+			total *= values[i].length;
+		}
+		
+		Extension extension = new Extension(function, domain.getComponent(0), values, grades);
+		double[] memberships;
+		if (total < SEQUENTIAL_THRESHOLD) {
+			memberships = extension.evaluate(0, total);
+		} else {
+			long perTask = Math.max(1, total / (4 * ForkJoinPool.getCommonPoolParallelism()));
+			memberships = new ExtensionTask(extension, 0, total, perTask).invoke();
+		}
+		
+		return Operations.pack(domain, memberships);
+	}
+	
+	private static void support(IFuzzySet set, int[][] values, double[][] grades, int i) {
+		int first = set.getDomain().getComponent(0).getFirst();
+		int n = set.getDomain().getCardinality();
+		
+		int size = 0;
+		for (int index = 0; index < n; index++) {
+			if (set.getValueAtIndex(index) > 0) size++;
+		}
+		
+		values[i] = new int[size];
+		grades[i] = new double[size];
+		int k = 0;
+		for (int index = 0; index < n; index++) {
+			double grade = set.getValueAtIndex(index);
+			if (grade > 0) {
+				values[i][k] = first + index;
+				grades[i][k++] = grade;
+			}
+		}
+	}
+	
+	/**
+	 * Evaluation of a range of tuples of the product of the supports, with the
+	 * last argument varying fastest.
+	 */
+	private static class Extension {
+		
+		private final IIntVectorFunction function;
+		
+		private final SimpleDomain domain;
+		
+		private final int[][] values;
+		
+		private final double[][] grades;
+		
+		Extension(IIntVectorFunction function, SimpleDomain domain, int[][] values, double[][] grades) {
+			this.function = function;
+			this.domain = domain;
+			this.values = values;
+			this.grades = grades;
+		}
+		
+		double[] evaluate(long from, long to) {
+			double[] result = new double[domain.getCardinality()];
+			if (from >= to) return result;
+			
+			int arity = values.length;
+			int first = domain.getFirst();
+			int[] position = new int[arity];
+			int[] arguments = new int[arity];
+			double[] prefix = new double[arity];
+			
+			long rest = from;
+			for (int i = arity - 1; i >= 0; i--) {
+				position[i] = (int) (rest % values[i].length);
+				rest /= values[i].length;
+			}
+			
+			int changed = 0;
+			for (long t = from; t < to; t++) {
+				for (int i = changed; i < arity; i++) {
+					arguments[i] = values[i][position[i]];
+					double grade = grades[i][position[i]];
+					prefix[i] = i == 0 ? grade : Math.min(prefix[i - 1], grade);
+				}
+				
+				int offset = function.valueAt(arguments) - first;
+				if (offset >= 0 && offset < result.length && prefix[arity - 1] > result[offset])
+					result[offset] = prefix[arity - 1];
+				
+				changed = arity - 1;
+				while (changed > 0 && ++position[changed] == values[changed].length) {
+					position[changed--] = 0;
+				}
+				if (changed == 0) position[0]++;
+			}
+			
+			return result;
+		}
+		
+	}
+	
+	private static class ExtensionTask extends RecursiveTask<double[]> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Extension extension;
+		
+		private final long from;
+		
+		private final long to;
+		
+		private final long perTask;
+		
+		ExtensionTask(Extension extension, long from, long to, long perTask) {
+			this.extension = extension;
+			this.from = from;
+			this.to = to;
+			this.perTask = perTask;
+		}
+		
+		@Override
+		protected double[] compute() {
+			if (to - from <= perTask) return extension.evaluate(from, to);
+			
+			long middle = (from + to) >>> 1;
+			ExtensionTask left = new ExtensionTask(extension, from, middle, perTask);
+			left.fork();
+			double[] right = new ExtensionTask(extension, middle, to, perTask).compute();
+			double[] result = left.join();
+			
+			for (int i = 0; i < result.length; i++) {
+				if (right[i] > result[i]) result[i] = right[i];
+			}
+			
+			return result;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,234 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A lazily evaluated fuzzy set built from other sets with the functions in
+ * {@link Operations}. Building an expression only records the operation tree.
+ * The membership of an element is computed by walking the tree for that one
+ * index, so no intermediate sets are allocated. {@link #materialize()} fuses the
+ * whole tree into a single pass over the domain.
+ * <p>
+ * For example <code>FuzzyExpression.of(a).not().combine(b, hamacherTNorm(nu))</code>
+ * evaluates <code>binaryOperation(unaryOperation(a, ZADEH_NOT), b, hamacherTNorm(nu))</code>
+ * without building the complement of <code>a</code>.
+ * <p>
+ * Linguistic hedges are unary views as well. Consecutive unary steps collapse
+ * into one node when the expression is built: powers multiply their
+ * exponents, so <code>of(a).very().very()</code> is <code>a</code> to the
+ * fourth, and other functions are composed into a single function.
+ */
+public abstract class FuzzyExpression implements IFuzzySet {
+	
+	private IDomain domain;
+	
+	private FuzzyExpression(IDomain domain) {
+		this.domain = domain;
+	}
+	
+	/**
+	 * Wraps <code>set</code> as a leaf of a new expression.
+	 *
+	 * @param set - the set to wrap
+	 * @return an expression evaluating to <code>set</code>
+	 */
+	public static FuzzyExpression of(IFuzzySet set) {
+		if (set instanceof FuzzyExpression) return (FuzzyExpression) set;
+		
+		return new Leaf(set);
+	}
+	
+	public FuzzyExpression apply(IUnaryFunction function) {
+		if (this instanceof Unary) {
+			Unary unary = (Unary) this;
+			IUnaryFunction inner = unary.function;
+			return new Unary(unary.operand, m -> function.valueAt(inner.valueAt(m)));
+		}
+		
+		if (this instanceof Power) {
+			Power power = (Power) this;
+			double exponent = power.exponent;
+			return new Unary(power.operand, m -> function.valueAt(Math.pow(m, exponent)));
+		}
+		
+		return new Unary(this, function);
+	}
+	
+	/**
+	 * Raises every membership to <code>exponent</code>. Exponents above 1
+	 * concentrate the set and exponents below 1 dilate it.
+	 * 
+	 * @param exponent - a positive exponent
+	 * @return the modified expression
+	 */
+	public FuzzyExpression power(double exponent) {
+		if (this instanceof Power) {
+			Power power = (Power) this;
+			return new Power(power.operand, power.exponent * exponent);
+		}
+		
+		if (this instanceof Unary) return apply(m -> Math.pow(m, exponent));
+		
+		return new Power(this, exponent);
+	}
+	
+	/**
+	 * The hedge "very", concentration with exponent 2.
+	 */
+	public FuzzyExpression very() {
+		return power(2);
+	}
+	
+	/**
+	 * The hedge "extremely", concentration with exponent 3.
+	 */
+	public FuzzyExpression extremely() {
+		return power(3);
+	}
+	
+	/**
+	 * The hedge "somewhat", dilation with exponent 1/2.
+	 */
+	public FuzzyExpression somewhat() {
+		return power(0.5);
+	}
+	
+	/**
+	 * Contrast intensification: memberships below 1/2 are lowered to
+	 * <code>2 m^2</code> and the others raised to <code>1 - 2 (1 - m)^2</code>.
+	 */
+	public FuzzyExpression intensify() {
+		return apply(m -> m <= 0.5 ? 2 * m * m : 1 - 2 * (1 - m) * (1 - m));
+	}
+	
+	public FuzzyExpression combine(IFuzzySet other, IBinaryFunction function) {
+		return new Binary(this, of(other), function);
+	}
+	
+	public FuzzyExpression not() {
+		return apply(Operations.zadehNot());
+	}
+	
+	public FuzzyExpression and(IFuzzySet other) {
+		return combine(other, Operations.zadehAnd());
+	}
+	
+	public FuzzyExpression or(IFuzzySet other) {
+		return combine(other, Operations.zadehOr());
+	}
+	
+	/**
+	 * Evaluates the whole expression in one pass over its domain.
+	 *
+	 * @return a dense set holding the value of this expression
+	 */
+	public MutableFuzzySet materialize() {
+		double[] memberships = new double[domain.getCardinality()];
+		
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = getValueAtIndex(i);
+		}
+		
+		return new MutableFuzzySet(domain, memberships);
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return getValueAtIndex(domain.indexOfElement(element));
+	}
+	
+	@Override
+	public abstract double getValueAtIndex(int index);
+	
+	@Override
+	public String toString() {
+		return materialize().toString();
+	}
+	
+	private static class Leaf extends FuzzyExpression {
+		
+		private IFuzzySet set;
+		
+		private Leaf(IFuzzySet set) {
+			super(set.getDomain());
+			this.set = set;
+		}
+		
+		@Override
+		public double getValueAtIndex(int index) {
+			return set.getValueAtIndex(index);
+		}
+		
+	}
+	
+	private static class Unary extends FuzzyExpression {
+		
+		private FuzzyExpression operand;
+		
+		private IUnaryFunction function;
+		
+		private Unary(FuzzyExpression operand, IUnaryFunction function) {
+			super(operand.getDomain());
+			this.operand = operand;
+			this.function = function;
+		}
+		
+		@Override
+		public double getValueAtIndex(int index) {
+			return function.valueAt(operand.getValueAtIndex(index));
+		}
+		
+	}
+	
+	private static class Power extends FuzzyExpression {
+		
+		private FuzzyExpression operand;
+		
+		private double exponent;
+		
+		private Power(FuzzyExpression operand, double exponent) {
+			super(operand.getDomain());
+			this.operand = operand;
+			this.exponent = exponent;
+		}
+		
+		@Override
+		public double getValueAtIndex(int index) {
+			return Math.pow(operand.getValueAtIndex(index), exponent);
+		}
+		
+	}
+	
+	private static class Binary extends FuzzyExpression {
+		
+		private FuzzyExpression first;
+		
+		private FuzzyExpression second;
+		
+		private IBinaryFunction function;
+		
+		private boolean sameDomain;
+		
+		private Binary(FuzzyExpression first, FuzzyExpression second, IBinaryFunction function) {
+			super(first.getDomain());
+			this.first = first;
+			this.second = second;
+			this.function = function;
+			sameDomain = first.getDomain().equals(second.getDomain());
+		}
+		
+		@Override
+		public double getValueAtIndex(int index) {
+			double value2 = sameDomain
+					? second.getValueAtIndex(index)
+					: second.getValueAt(getDomain().elementForIndex(index));
+			
+			return function.valueAt(first.getValueAtIndex(index), value2);
+		}
+		
+	}
+
+}
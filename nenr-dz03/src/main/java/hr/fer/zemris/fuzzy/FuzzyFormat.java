@@ -0,0 +1,174 @@
+package hr.fer.zemris.fuzzy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The header of the binary files holding domains and fuzzy sets. All numbers
+ * are little-endian. The header is
+ * <pre>
+ * int   magic           "NFZS"
+ * short version
+ * byte  kind            what follows the header
+ * byte  flags           FLAG_COMPOSITE if the domain is a CompositeDomain
+ * int   components
+ * int   first, last     for every component, last exclusive
+ * </pre>
+ * and is padded to a multiple of 8 bytes, so the memberships that follow can
+ * be mapped directly as doubles.
+ */
+final class FuzzyFormat {
+	
+	/**
+	 * The bytes "NFZS" read as a little-endian int.
+	 */
+	static final int MAGIC = 0x535A464E;
+	
+	static final short VERSION = 1;
+	
+	static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	
+	/**
+	 * Nothing, the file holds only a domain.
+	 */
+	static final byte DOMAIN = 0;
+	
+	/**
+	 * A dense row-major array of doubles, one for every element of the domain.
+	 */
+	static final byte DENSE = 1;
+	
+	/**
+	 * The support size as an int and 4 bytes of padding, then the sorted
+	 * indices of the support as ints, padded to 8 bytes, then their
+	 * memberships as doubles.
+	 */
+	static final byte SPARSE = 2;
+	
+	/**
+	 * The number of breakpoints as an int, the ordinal of the materialization
+	 * as a byte and 3 bytes of padding, then the breakpoint positions and the
+	 * values at them as doubles.
+	 */
+	static final byte PIECEWISE_LINEAR = 3;
+	
+	static final byte FLAG_COMPOSITE = 1;
+	
+	private FuzzyFormat() {}
+	
+	/**
+	 * Returns the size of the padded header for a domain with the given number of components.
+	 */
+	static int headerSize(int components) {
+		return (12 + 8 * components + 7) & ~7;
+	}
+	
+	static void writeHeader(ByteBuffer buffer, byte kind, IDomain domain) {
+		buffer.order(ORDER);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.put(kind);
+		buffer.put(domain instanceof CompositeDomain ? FLAG_COMPOSITE : 0);
+		buffer.putInt(domain.getNumberOfComponents());
+		
+		for (int i = 0; i < domain.getNumberOfComponents(); i++) {
+			SimpleDomain component = domain.getComponent(i);
+			buffer.putInt(component.getFirst());
+			buffer.putInt(component.getLast());
+		}
+		
+		while (buffer.position() % 8 != 0) {
+			buffer.put((byte) 0);
+		}
+	}
+	
+	/**
+	 * Returns the kind of payload of the file open in <code>channel</code>.
+	 * 
+	 * @throws IOException if the file is not a fuzzy set file of this version
+	 */
+	static byte readKind(FileChannel channel) throws IOException {
+		ByteBuffer start = ByteBuffer.allocate(12).order(ORDER);
+		channel.read(start, 0);
+		start.flip();
+		
+		if (start.remaining() < 12 || start.getInt() != MAGIC)
+			throw new IOException("Not a fuzzy set file.");
+		
+		short version = start.getShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported fuzzy set file version " + version + ".");
+		
+		return start.get();
+	}
+	
+	/**
+	 * Reads the header at the start of <code>channel</code>.
+	 * 
+	 * @see #readHeader(ByteBuffer, byte)
+	 */
+	static IDomain readHeader(FileChannel channel, byte kind) throws IOException {
+		ByteBuffer start = ByteBuffer.allocate(12).order(ORDER);
+		channel.read(start, 0);
+		
+		int components = start.remaining() == 0 ? start.getInt(8) : 0;
+		ByteBuffer header = ByteBuffer.allocate(components < 1 || components > 1 << 16 ? 12 : headerSize(components));
+		channel.read(header, 0);
+		header.flip();
+		
+		return readHeader(header, kind);
+	}
+	
+	/**
+	 * Reads the header at the position of <code>buffer</code> and returns the
+	 * domain it describes, leaving the buffer at the start of the payload.
+	 * 
+	 * @param buffer - the buffer to read from
+	 * @param kind - the expected kind of payload
+	 * @return the domain of the stored set
+	 * @throws IOException if the header is malformed, of another version or of another kind
+	 */
+	static IDomain readHeader(ByteBuffer buffer, byte kind) throws IOException {
+		buffer.order(ORDER);
+		if (buffer.remaining() < 12 || buffer.getInt() != MAGIC)
+			throw new IOException("Not a fuzzy set file.");
+		
+		short version = buffer.getShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported fuzzy set file version " + version + ".");
+		
+		byte storedKind = buffer.get();
+		if (storedKind != kind)
+			throw new IOException("Expected payload of kind " + kind + ", found " + storedKind + ".");
+		
+		boolean composite = (buffer.get() & FLAG_COMPOSITE) != 0;
+		int components = buffer.getInt();
+		if (components < 1 || components > 1 << 16 || buffer.remaining() < headerSize(components) - 12)
+			throw new IOException("Truncated fuzzy set file header.");
+		if (!composite && components != 1)
+			throw new IOException("Simple domain with " + components + " components in fuzzy set file header.");
+		
+		SimpleDomain[] simple = new SimpleDomain[components];
+		for (int i = 0; i < components; i++) {
+			int first = buffer.getInt();
+			int last = buffer.getInt();
+			if (last < first || (long) last - first > Integer.MAX_VALUE)
+				throw new IOException("Malformed domain bounds [" + first + ", " + last + ") in fuzzy set file header.");
+			
+			simple[i] = new SimpleDomain(first, last);
+		}
+		
+		buffer.position(buffer.position() + headerSize(components) - 12 - 8 * components);
+		
+		if (!composite) return simple[0];
+		
+		try {
+			return new CompositeDomain(simple);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Fuzzy set file header describes too large a domain.", e);
+		}
+	}
+	
+}
@@ -0,0 +1,268 @@
+package hr.fer.zemris.fuzzy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+import hr.fer.zemris.fuzzy.CalculatedFuzzySet.Materialization;
+
+/**
+ * Reads and writes domains and fuzzy sets in the versioned binary format
+ * described in {@link FuzzyFormat}. Sparse sets keep only their support and
+ * piecewise linear sets only their breakpoints. Every other set is written as
+ * a dense array of memberships, which {@link #read(Path)} maps straight into a
+ * {@link MappedFuzzySet} without copying it onto the heap. Calculated sets
+ * with an arbitrary membership function are tabulated.
+ * <p>
+ * Files are replaced atomically: a set is written to a temporary file in the
+ * same directory, forced to the device and then renamed over the target. A
+ * crash mid-write leaves either the old file or no file, never a file with a
+ * valid header and a zeroed tail, and a set may be written to the very file
+ * it is mapped from.
+ * <p>
+ * {@link #readOrCompute(Path, IDomain, Supplier)} caches expensive results,
+ * such as compositions and closures, between runs.
+ */
+public final class FuzzyIO {
+	
+	private FuzzyIO() {}
+	
+	public static void writeDomain(Path file, IDomain domain) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(FuzzyFormat.headerSize(domain.getNumberOfComponents()));
+		FuzzyFormat.writeHeader(buffer, FuzzyFormat.DOMAIN, domain);
+		replace(file, tmp -> write(tmp, buffer));
+	}
+	
+	public static IDomain readDomain(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return FuzzyFormat.readHeader(channel, FuzzyFormat.DOMAIN);
+		}
+	}
+	
+	/**
+	 * Atomically replaces <code>file</code> with <code>set</code>. The set may
+	 * be mapped from <code>file</code> itself, since the old file is only
+	 * unlinked once the new one is complete.
+	 * 
+	 * @param file - the file to write
+	 * @param set - the set to store
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path file, IFuzzySet set) throws IOException {
+		if (set instanceof SparseFuzzySet) {
+			replace(file, tmp -> writeSparse(tmp, (SparseFuzzySet) set));
+		} else if (set instanceof PiecewiseLinearFuzzySet) {
+			replace(file, tmp -> writePiecewiseLinear(tmp, (PiecewiseLinearFuzzySet) set));
+		} else {
+			replace(file, tmp -> writeDense(tmp, set));
+		}
+	}
+	
+	/**
+	 * Reads a set written by {@link #write(Path, IFuzzySet)}. Dense sets are
+	 * mapped read-only from the file.
+	 * 
+	 * @param file - the file to read
+	 * @return the stored set
+	 * @throws IOException if the file cannot be read or is not a fuzzy set file of this version
+	 */
+	public static IFuzzySet read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			byte kind = FuzzyFormat.readKind(channel);
+			
+			switch (kind) {
+			case FuzzyFormat.DENSE:
+				return MappedFuzzySet.open(file, false);
+			case FuzzyFormat.SPARSE:
+				return readSparse(channel);
+			case FuzzyFormat.PIECEWISE_LINEAR:
+				return readPiecewiseLinear(channel);
+			default:
+				throw new IOException("File " + file + " does not hold a fuzzy set.");
+			}
+		}
+	}
+	
+	/**
+	 * Returns the set stored in <code>file</code>, or computes it and stores it
+	 * there if the file does not exist, cannot be read or holds a set over a
+	 * domain other than <code>domain</code>. Domains are compared by their
+	 * components, so a simple domain matches a composite domain of that one
+	 * component.
+	 * 
+	 * @param file - the cache file
+	 * @param domain - domain the cached set must have
+	 * @param computation - computes the set on a cache miss
+	 * @return the cached or computed set
+	 * @throws IOException if the computed set cannot be written
+	 * @throws IllegalArgumentException if the computed set is not over <code>domain</code>
+	 */
+	public static IFuzzySet readOrCompute(Path file, IDomain domain, Supplier<? extends IFuzzySet> computation)
+			throws IOException {
+		if (Files.isReadable(file)) {
+			try {
+				IFuzzySet cached = read(file);
+				if (sameComponents(cached.getDomain(), domain))
+					return cached;
+			} catch (IOException e) {
+				// stale or foreign file, recompute it
+			}
+		}
+		
+		IFuzzySet set = computation.get();
+		if (!sameComponents(set.getDomain(), domain))
+			throw new IllegalArgumentException("Computed set is not over the expected domain.");
+		write(file, set);
+		
+		return set;
+	}
+	
+	private static boolean sameComponents(IDomain first, IDomain second) {
+		if (first.getNumberOfComponents() != second.getNumberOfComponents()) return false;
+		
+		for (int i = 0; i < first.getNumberOfComponents(); i++) {
+			if (!first.getComponent(i).equals(second.getComponent(i))) return false;
+		}
+		
+		return true;
+	}
+	
+	private static void writeDense(Path file, IFuzzySet set) throws IOException {
+		MappedFuzzySet mapped = MappedFuzzySet.create(file, set.getDomain());
+		int cardinality = set.getDomain().getCardinality();
+		double[] tile = new double[Math.min(cardinality, TiledRelations.TILE_ELEMENTS)];
+		
+		for (int from = 0; from < cardinality; from += tile.length) {
+			int length = Math.min(tile.length, cardinality - from);
+			TiledRelations.read(set, from, tile, 0, length);
+			mapped.write(from, tile, 0, length);
+		}
+		
+		mapped.force();
+	}
+	
+	private static void writeSparse(Path file, SparseFuzzySet set) throws IOException {
+		int size = set.getSupportSize();
+		int header = FuzzyFormat.headerSize(set.getDomain().getNumberOfComponents());
+		int indicesSize = (4 * size + 7) & ~7;
+		
+		ByteBuffer buffer = ByteBuffer.allocate(header + 8 + indicesSize + 8 * size);
+		FuzzyFormat.writeHeader(buffer, FuzzyFormat.SPARSE, set.getDomain());
+		buffer.putInt(size).putInt(0);
+		
+		int[] indices = set.indices();
+		double[] values = set.values();
+		for (int i = 0; i < size; i++) {
+			buffer.putInt(indices[i]);
+		}
+		buffer.position(header + 8 + indicesSize);
+		for (int i = 0; i < size; i++) {
+			buffer.putDouble(values[i]);
+		}
+		
+		write(file, buffer);
+	}
+	
+	private static SparseFuzzySet readSparse(FileChannel channel) throws IOException {
+		MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		IDomain domain = FuzzyFormat.readHeader(buffer, FuzzyFormat.SPARSE);
+		
+		int size = buffer.getInt();
+		buffer.getInt();
+		int indicesSize = (4 * size + 7) & ~7;
+		if (size < 0 || buffer.remaining() < (long) indicesSize + 8L * size)
+			throw new IOException("Truncated sparse fuzzy set file.");
+		
+		int[] indices = new int[size];
+		double[] values = new double[size];
+		buffer.asIntBuffer().get(indices);
+		buffer.position(buffer.position() + indicesSize);
+		buffer.asDoubleBuffer().get(values);
+		
+		return new SparseFuzzySet(domain, indices, values);
+	}
+	
+	private static void writePiecewiseLinear(Path file, PiecewiseLinearFuzzySet set) throws IOException {
+		PiecewiseLinearFunction function = set.getMembershipFunction();
+		int breakpoints = function.getNumberOfBreakpoints();
+		int header = FuzzyFormat.headerSize(1);
+		
+		ByteBuffer buffer = ByteBuffer.allocate(header + 8 + 16 * breakpoints);
+		FuzzyFormat.writeHeader(buffer, FuzzyFormat.PIECEWISE_LINEAR, set.getDomain());
+		buffer.putInt(breakpoints).put((byte) set.getMaterialization().ordinal());
+		buffer.position(header + 8);
+		
+		for (int k = 0; k < breakpoints; k++) {
+			buffer.putDouble(function.getBreakpoint(k));
+		}
+		for (int k = 0; k < breakpoints; k++) {
+			buffer.putDouble(function.getBreakpointValue(k));
+		}
+		
+		write(file, buffer);
+	}
+	
+	private static PiecewiseLinearFuzzySet readPiecewiseLinear(FileChannel channel) throws IOException {
+		MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		IDomain domain = FuzzyFormat.readHeader(buffer, FuzzyFormat.PIECEWISE_LINEAR);
+		
+		int breakpoints = buffer.getInt();
+		int materialization = buffer.get();
+		buffer.position(buffer.position() + 3);
+		if (breakpoints < 1 || buffer.remaining() < 16L * breakpoints
+				|| materialization < 0 || materialization >= Materialization.values().length)
+			throw new IOException("Malformed piecewise linear fuzzy set file.");
+		
+		double[] xs = new double[breakpoints];
+		double[] ys = new double[breakpoints];
+		buffer.asDoubleBuffer().get(xs).get(ys);
+		
+		try {
+			return new PiecewiseLinearFuzzySet(domain, new PiecewiseLinearFunction(xs, ys),
+					Materialization.values()[materialization]);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Malformed piecewise linear fuzzy set file.", e);
+		}
+	}
+	
+	private static void write(Path file, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+	}
+	
+	/**
+	 * Lets <code>writer</code> fill a temporary file next to <code>file</code>
+	 * and renames it over <code>file</code> once it is complete.
+	 */
+	private static void replace(Path file, TempFileWriter writer) throws IOException {
+		Path absolute = file.toAbsolutePath();
+		Path tmp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+		
+		try {
+			writer.write(tmp);
+			Files.move(tmp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+	
+	@FunctionalInterface
+	private interface TempFileWriter {
+		void write(Path file) throws IOException;
+	}
+	
+}
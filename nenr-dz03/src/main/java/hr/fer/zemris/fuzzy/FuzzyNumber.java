@@ -0,0 +1,269 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A fuzzy number stored as its alpha-cuts, closed intervals
+ * <code>[lower(k), upper(k)]</code> at the levels <code>alpha(k) = k / (L - 1)</code>
+ * for <code>k = 0, ..., L - 1</code>. The cut at level 0 is the closure of the
+ * support and the cut at level 1 is the core. Arithmetic is interval
+ * arithmetic on every level, so an operation costs O(L) regardless of the
+ * range of the numbers. Between levels the membership function is
+ * interpolated linearly.
+ */
+public class FuzzyNumber {
+	
+	/**
+	 * Number of alpha levels used when none is given.
+	 */
+	public static final int DEFAULT_LEVELS = 21;
+	
+	private double[] lower;
+	
+	private double[] upper;
+	
+	private FuzzyNumber(double[] lower, double[] upper) {
+		this.lower = lower;
+		this.upper = upper;
+	}
+	
+	public static FuzzyNumber triangular(double a, double b, double c) {
+		return trapezoidal(a, b, b, c, DEFAULT_LEVELS);
+	}
+	
+	public static FuzzyNumber triangular(double a, double b, double c, int levels) {
+		return trapezoidal(a, b, b, c, levels);
+	}
+	
+	public static FuzzyNumber trapezoidal(double a, double b, double c, double d) {
+		return trapezoidal(a, b, c, d, DEFAULT_LEVELS);
+	}
+	
+	/**
+	 * Creates the trapezoidal number with support <code>[a, d]</code> and core <code>[b, c]</code>.
+	 * 
+	 * @param a - left end of the support
+	 * @param b - left end of the core
+	 * @param c - right end of the core
+	 * @param d - right end of the support
+	 * @param levels - number of alpha levels, at least 2
+	 * @return the fuzzy number
+	 * @throws IllegalArgumentException if <code>a &lt;= b &lt;= c &lt;= d</code> does not hold
+	 */
+	public static FuzzyNumber trapezoidal(double a, double b, double c, double d, int levels) {
+		if (!(a <= b && b <= c && c <= d))
+			throw new IllegalArgumentException("Expected a <= b <= c <= d.");
+		
+		double[] lower = new double[checkLevels(levels)];
+		double[] upper = new double[levels];
+		for (int k = 0; k < levels; k++) {
+			double alpha = alpha(k, levels);
+			lower[k] = a + alpha * (b - a);
+			upper[k] = d - alpha * (d - c);
+		}
+		lower[levels - 1] = b;
+		upper[levels - 1] = c;
+		
+		return new FuzzyNumber(lower, upper);
+	}
+	
+	/**
+	 * Reads the alpha-cuts of a normal fuzzy set over a simple domain. A cut
+	 * that is not an interval is replaced by the smallest interval containing
+	 * it, so a set that is not convex yields its convex hull.
+	 * 
+	 * @param set - a normal fuzzy set over a simple domain
+	 * @param levels - number of alpha levels, at least 2
+	 * @return the fuzzy number
+	 * @throws IllegalArgumentException if the domain is not simple or the set is not normal
+	 */
+	public static FuzzyNumber of(IFuzzySet set, int levels) {
+		IDomain domain = set.getDomain();
+		if (domain.getNumberOfComponents() != 1)
+			throw new IllegalArgumentException("Fuzzy numbers are defined only over simple domains.");
+		
+		int first = domain.getComponent(0).getFirst();
+		int n = domain.getCardinality();
+		double[] lower = new double[checkLevels(levels)];
+		double[] upper = new double[levels];
+		
+		int assigned = 0;
+		for (int i = 0; i < n && assigned < levels; i++) {
+			double membership = set.getValueAtIndex(i);
+			while (assigned < levels && reaches(membership, assigned, levels)) {
+				lower[assigned++] = first + i;
+			}
+		}
+		
+		if (assigned < levels)
+			throw new IllegalArgumentException("Fuzzy numbers must be normal.");
+		
+		assigned = 0;
+		for (int i = n - 1; i >= 0 && assigned < levels; i--) {
+			double membership = set.getValueAtIndex(i);
+			while (assigned < levels && reaches(membership, assigned, levels)) {
+				upper[assigned++] = first + i;
+			}
+		}
+		
+		return new FuzzyNumber(lower, upper);
+	}
+	
+	/**
+	 * Returns whether an element of grade <code>membership</code> is in the
+	 * cut at level <code>k</code>, which is strict for level 0.
+	 */
+	private static boolean reaches(double membership, int k, int levels) {
+		return k == 0 ? membership > 0 : membership >= alpha(k, levels);
+	}
+	
+	public int getLevels() {
+		return lower.length;
+	}
+	
+	public double getAlpha(int k) {
+		return alpha(k, lower.length);
+	}
+	
+	public double getLower(int k) {
+		return lower[k];
+	}
+	
+	public double getUpper(int k) {
+		return upper[k];
+	}
+	
+	public FuzzyNumber add(FuzzyNumber other) {
+		checkLevels(other);
+		double[] l = new double[lower.length], u = new double[lower.length];
+		for (int k = 0; k < lower.length; k++) {
+			l[k] = lower[k] + other.lower[k];
+			u[k] = upper[k] + other.upper[k];
+		}
+		
+		return new FuzzyNumber(l, u);
+	}
+	
+	public FuzzyNumber subtract(FuzzyNumber other) {
+		checkLevels(other);
+		double[] l = new double[lower.length], u = new double[lower.length];
+		for (int k = 0; k < lower.length; k++) {
+			l[k] = lower[k] - other.upper[k];
+			u[k] = upper[k] - other.lower[k];
+		}
+		
+		return new FuzzyNumber(l, u);
+	}
+	
+	public FuzzyNumber multiply(FuzzyNumber other) {
+		checkLevels(other);
+		double[] l = new double[lower.length], u = new double[lower.length];
+		for (int k = 0; k < lower.length; k++) {
+			double p1 = lower[k] * other.lower[k], p2 = lower[k] * other.upper[k];
+			double p3 = upper[k] * other.lower[k], p4 = upper[k] * other.upper[k];
+			l[k] = Math.min(Math.min(p1, p2), Math.min(p3, p4));
+			u[k] = Math.max(Math.max(p1, p2), Math.max(p3, p4));
+		}
+		
+		return new FuzzyNumber(l, u);
+	}
+	
+	/**
+	 * Divides this number by <code>other</code>.
+	 * 
+	 * @param other - the divisor
+	 * @return the quotient
+	 * @throws ArithmeticException if the support of <code>other</code> contains 0
+	 */
+	public FuzzyNumber divide(FuzzyNumber other) {
+		checkLevels(other);
+		if (other.lower[0] <= 0 && other.upper[0] >= 0)
+			throw new ArithmeticException("The support of the divisor contains 0.");
+		
+		double[] l = new double[lower.length], u = new double[lower.length];
+		for (int k = 0; k < lower.length; k++) {
+			l[k] = 1 / other.upper[k];
+			u[k] = 1 / other.lower[k];
+		}
+		
+		return multiply(new FuzzyNumber(l, u));
+	}
+	
+	public FuzzyNumber negate() {
+		return scale(-1);
+	}
+	
+	public FuzzyNumber scale(double factor) {
+		double[] l = new double[lower.length], u = new double[lower.length];
+		for (int k = 0; k < lower.length; k++) {
+			l[k] = Math.min(lower[k] * factor, upper[k] * factor);
+			u[k] = Math.max(lower[k] * factor, upper[k] * factor);
+		}
+		
+		return new FuzzyNumber(l, u);
+	}
+	
+	/**
+	 * Returns the membership of <code>x</code>, interpolated linearly between
+	 * the alpha levels.
+	 * 
+	 * @param x - a real number
+	 * @return the membership of <code>x</code> in this number
+	 */
+	public double membership(double x) {
+		int top = lower.length - 1;
+		if (x < lower[0] || x > upper[0]) return 0;
+		if (x >= lower[top] && x <= upper[top]) return 1;
+		
+		if (x < lower[top]) {
+			int k = 0;
+			while (lower[k + 1] <= x) k++;
+			return getAlpha(k) + (getAlpha(k + 1) - getAlpha(k)) * (x - lower[k]) / (lower[k + 1] - lower[k]);
+		}
+		
+		int k = 0;
+		while (upper[k + 1] >= x) k++;
+		return getAlpha(k) + (getAlpha(k + 1) - getAlpha(k)) * (upper[k] - x) / (upper[k] - upper[k + 1]);
+	}
+	
+	/**
+	 * Returns a calculated fuzzy set over <code>domain</code> with the
+	 * memberships of this number at the domain's element values.
+	 * 
+	 * @param domain - a simple domain
+	 * @return this number as a fuzzy set
+	 * @throws IllegalArgumentException if the domain is not simple
+	 */
+	public IFuzzySet toFuzzySet(IDomain domain) {
+		if (domain.getNumberOfComponents() != 1)
+			throw new IllegalArgumentException("Fuzzy numbers are defined only over simple domains.");
+		
+		int first = domain.getComponent(0).getFirst();
+		return new CalculatedFuzzySet(domain, index -> membership(first + index));
+	}
+	
+	private static double alpha(int k, int levels) {
+		return k == levels - 1 ? 1 : (double) k / (levels - 1);
+	}
+	
+	private static int checkLevels(int levels) {
+		if (levels < 2)
+			throw new IllegalArgumentException("A fuzzy number needs at least 2 alpha levels, got " + levels + ".");
+		
+		return levels;
+	}
+	
+	private void checkLevels(FuzzyNumber other) {
+		if (other.lower.length != lower.length)
+			throw new IllegalArgumentException("Fuzzy numbers must have the same number of alpha levels.");
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < lower.length; k++) {
+			sb.append(getAlpha(k) + ": [" + lower[k] + ", " + upper[k] + "]" + (k == lower.length - 1 ? "" : ", "));
+		}
+		
+		return sb.toString();
+	}
+	
+}
@@ -1,5 +1,11 @@
 package hr.fer.zemris.fuzzy;
 
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface IDomain extends Iterable<DomainElement> {
 	
 	int getCardinality();
@@ -12,4 +18,101 @@ public interface IDomain extends Iterable<DomainElement> {
 	
 	DomainElement elementForIndex(int index);
 	
+	/**
+	 * Returns the index of the element with the given component values,
+	 * computed from the bounds of the components without creating a domain
+	 * element.
+	 * 
+	 * @param values - the component values, one per component
+	 * @return the index of the element, or -1 if it is not in this domain
+	 */
+	default int indexOf(int... values) {
+		if (values.length != getNumberOfComponents()) return -1;
+		
+		int index = 0;
+		for (int i = 0; i < values.length; i++) {
+			SimpleDomain component = getComponent(i);
+			int offset = values[i] - component.getFirst();
+			if (offset < 0 || offset >= component.getCardinality()) return -1;
+			
+			index = index * component.getCardinality() + offset;
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Returns the index of the pair <code>(x, y)</code> in a domain of two components.
+	 * 
+	 * @see #indexOf(int...)
+	 */
+	default int indexOf(int x, int y) {
+		if (getNumberOfComponents() != 2) return -1;
+		
+		SimpleDomain first = getComponent(0);
+		SimpleDomain second = getComponent(1);
+		int offsetX = x - first.getFirst();
+		int offsetY = y - second.getFirst();
+		if (offsetX < 0 || offsetX >= first.getCardinality() || offsetY < 0 || offsetY >= second.getCardinality())
+			return -1;
+		
+		return offsetX * second.getCardinality() + offsetY;
+	}
+	
+	/**
+	 * Calls <code>action</code> with every index of this domain, in iteration order.
+	 * No domain elements are created.
+	 * 
+	 * @param action - the action to call with each index
+	 */
+	default void forEachIndex(IntConsumer action) {
+		int cardinality = getCardinality();
+		for (int i = 0; i < cardinality; i++) {
+			action.accept(i);
+		}
+	}
+	
+	/**
+	 * Returns a new cursor positioned before the first element of this domain.
+	 * The cursor keeps component values in a single reused buffer.
+	 * 
+	 * @return a new cursor over this domain
+	 */
+	default DomainCursor cursor() {
+		return new DomainCursor(this);
+	}
+	
+	/**
+	 * Returns a sized spliterator over the elements of this domain that splits
+	 * by index range, so parallel streams divide the domain evenly.
+	 * 
+	 * @return a spliterator over this domain
+	 */
+	@Override
+	default Spliterator<DomainElement> spliterator() {
+		return new DomainSpliterator(this, 0, getCardinality());
+	}
+	
+	default Stream<DomainElement> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	default Stream<DomainElement> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+	
+	/**
+	 * Returns the indices of this domain, <code>0</code> to <code>getCardinality() - 1</code>,
+	 * as a sequential stream. No domain elements are created.
+	 * 
+	 * @return a stream of the indices of this domain
+	 */
+	default IntStream indexStream() {
+		return IntStream.range(0, getCardinality());
+	}
+	
+	default IntStream parallelIndexStream() {
+		return indexStream().parallel();
+	}
+	
 }
@@ -6,4 +6,39 @@ public interface IFuzzySet {
 	
 	double getValueAt(DomainElement element);
 	
+	/**
+	 * Returns the membership of the domain element at <code>index</code>.
+	 * Implementations that store or compute memberships by index should override
+	 * this so callers can scan a set without creating domain elements.
+	 * 
+	 * @param index - index of the element in this set's domain
+	 * @return the membership of the element at <code>index</code>
+	 */
+	default double getValueAtIndex(int index) {
+		return getValueAt(getDomain().elementForIndex(index));
+	}
+	
+	/**
+	 * Returns the membership of the element with the given component values
+	 * without creating a domain element.
+	 * 
+	 * @param values - the component values, one per component of the domain
+	 * @return the membership of the element
+	 */
+	default double getValueAtValues(int... values) {
+		return getValueAtIndex(getDomain().indexOf(values));
+	}
+	
+	/**
+	 * Returns the membership of the pair <code>(x, y)</code> of a binary
+	 * relation without creating a domain element or an array.
+	 * 
+	 * @param x - value of the first component
+	 * @param y - value of the second component
+	 * @return the membership of <code>(x, y)</code>
+	 */
+	default double getValueAt2(int x, int y) {
+		return getValueAtIndex(getDomain().indexOf(x, y));
+	}
+	
 }
@@ -0,0 +1,15 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A crisp function of several integer arguments, such as the function
+ * extended by {@link ExtensionPrinciple}.
+ */
+public interface IIntVectorFunction {
+	
+	/**
+	 * @param values - the arguments; the array is reused between calls and must not be kept
+	 * @return the value of the function
+	 */
+	int valueAt(int[] values);
+	
+}
@@ -0,0 +1,142 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A relation over U x U together with its max-min transitive closure, which
+ * is kept up to date as grades of the relation change. As a fuzzy set it has
+ * the memberships of the closure.
+ * <p>
+ * Raising the grade of (x, y) to g can only add paths through that pair, so
+ * the closure is updated in O(|U|^2) with
+ * <code>C(i, j) = max(C(i, j), min(C*(i, x), g, C*(y, j)))</code>, where
+ * <code>C*</code> is the closure with 1 on the diagonal. Only rows that reach
+ * x and columns reachable from y are touched. Lowering a grade that the
+ * closure does not depend on costs O(1); any other lowering recomputes the
+ * closure.
+ */
+public class IncrementalTransitiveClosure implements IFuzzySet {
+	
+	private IDomain domain;
+	
+	private int n;
+	
+	private double[] relation;
+	
+	private double[] closure;
+	
+	/**
+	 * Copies <code>relation</code> and computes its closure.
+	 * 
+	 * @param relation - relation over U x U
+	 * @throws IllegalArgumentException if <code>relation</code> is not over U x U
+	 */
+	public IncrementalTransitiveClosure(IFuzzySet relation) {
+		if (!Relations.isUTimesURelation(relation))
+			throw new IllegalArgumentException("Transitive closure is defined only for relations over U x U.");
+		
+		domain = relation.getDomain();
+		n = domain.getComponent(0).getCardinality();
+		this.relation = Relations.matrix(relation).clone();
+		recompute();
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return closure[domain.indexOfElement(element)];
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		return closure[index];
+	}
+	
+	/**
+	 * Returns a copy of the underlying relation, before closing it. Later
+	 * updates of this set do not change the copy.
+	 * 
+	 * @return the relation whose closure this set currently is
+	 */
+	public MutableFuzzySet getRelation() {
+		return new MutableFuzzySet(domain, relation.clone());
+	}
+	
+	public IncrementalTransitiveClosure set(DomainElement element, double grade) {
+		int index = domain.indexOfElement(element);
+		return update(index / n, index % n, grade);
+	}
+	
+	/**
+	 * Sets the grade of <code>(x, y)</code> in the underlying relation and
+	 * updates the closure.
+	 * 
+	 * @param x - value of the first component
+	 * @param y - value of the second component
+	 * @param grade - the new grade
+	 * @return this set
+	 */
+	public IncrementalTransitiveClosure set2(int x, int y, double grade) {
+		int first = domain.getComponent(0).getFirst();
+		return update(x - first, y - first, grade);
+	}
+	
+	private IncrementalTransitiveClosure update(int x, int y, double grade) {
+		if (x < 0 || x >= n || y < 0 || y >= n)
+			throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of U x U.");
+		
+		int index = x * n + y;
+		double old = relation[index];
+		relation[index] = grade;
+		
+		if (grade > old) {
+			raise(x, y, grade);
+		} else if (grade < old && old >= closure[index]) {
+			recompute();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Adds the paths through the pair (x, y) of grade <code>grade</code>.
+	 */
+	private void raise(int x, int y, double grade) {
+		if (grade <= closure[x * n + y]) return;
+		
+		double[] toX = new double[n];
+		double[] fromY = new double[n];
+		for (int i = 0; i < n; i++) {
+			toX[i] = Math.min(i == x ? 1 : closure[i * n + x], grade);
+			fromY[i] = i == y ? 1 : closure[y * n + i];
+		}
+		
+		CompositionEngine.forEachRowBlock(n, (long) n * n, (rowFrom, rowTo) -> {
+			for (int i = rowFrom; i < rowTo; i++) {
+				double a = toX[i];
+				if (a == 0) continue;
+				
+				int row = i * n;
+				for (int j = 0; j < n; j++) {
+					double value = Math.min(a, fromY[j]);
+					if (value > closure[row + j]) closure[row + j] = value;
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Recomputes the closure of the whole relation.
+	 */
+	private void recompute() {
+		closure = Relations.matrix(Relations.transitiveClosure(new MutableFuzzySet(domain, relation)));
+	}
+	
+	@Override
+	public String toString() {
+		return new MutableFuzzySet(domain, closure).toString();
+	}
+	
+}
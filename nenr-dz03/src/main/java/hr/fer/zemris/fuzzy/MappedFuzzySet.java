@@ -0,0 +1,178 @@
+package hr.fer.zemris.fuzzy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A dense fuzzy set whose memberships live in a memory-mapped file instead of
+ * on the heap, so relations over large domains take no more heap than the
+ * tiles being worked on. The file starts with a {@link FuzzyFormat} header
+ * describing the domain, followed by one little-endian double per element in
+ * the domain's iteration order. Files larger than 1 GiB are mapped in
+ * several chunks.
+ * <p>
+ * {@link Relations} composes and checks mapped relations tile by tile.
+ */
+public class MappedFuzzySet implements IFuzzySet {
+	
+	/**
+	 * Number of doubles in one mapping, as a power of two (1 GiB).
+	 */
+	static final int CHUNK_SHIFT = 27;
+	
+	private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+	
+	private IDomain domain;
+	
+	private MappedByteBuffer[] mappings;
+	
+	private DoubleBuffer[] chunks;
+	
+	private MappedFuzzySet(IDomain domain, FileChannel channel, long offset, MapMode mode) throws IOException {
+		this.domain = domain;
+		
+		long cardinality = domain.getCardinality();
+		int count = (int) ((cardinality + CHUNK_MASK) >>> CHUNK_SHIFT);
+		mappings = new MappedByteBuffer[count];
+		chunks = new DoubleBuffer[count];
+		
+		for (int k = 0; k < count; k++) {
+			long first = (long) k << CHUNK_SHIFT;
+			long length = Math.min(cardinality - first, 1L << CHUNK_SHIFT);
+			
+			mappings[k] = channel.map(mode, offset + first * Double.BYTES, length * Double.BYTES);
+			mappings[k].order(FuzzyFormat.ORDER);
+			chunks[k] = mappings[k].asDoubleBuffer();
+		}
+	}
+	
+	/**
+	 * Creates or truncates <code>file</code> and maps a set over
+	 * <code>domain</code> with all memberships 0.
+	 * 
+	 * @param file - the file to back the set
+	 * @param domain - domain of the set
+	 * @return the writable mapped set
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static MappedFuzzySet create(Path file, IDomain domain) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			int headerSize = FuzzyFormat.headerSize(domain.getNumberOfComponents());
+			ByteBuffer header = ByteBuffer.allocate(headerSize);
+			FuzzyFormat.writeHeader(header, FuzzyFormat.DENSE, domain);
+			header.flip();
+			channel.write(header, 0);
+			channel.force(false);
+			
+			return new MappedFuzzySet(domain, channel, headerSize, MapMode.READ_WRITE);
+		}
+	}
+	
+	/**
+	 * Maps an existing set file.
+	 * 
+	 * @param file - the file written by {@link #create(Path, IDomain)}
+	 * @param writable - whether {@link #set(DomainElement, double)} may be used
+	 * @return the mapped set
+	 * @throws IOException if the file cannot be read or is not a dense set file
+	 */
+	public static MappedFuzzySet open(Path file, boolean writable) throws IOException {
+		StandardOpenOption[] options = writable
+				? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+				: new StandardOpenOption[] {StandardOpenOption.READ};
+		
+		try (FileChannel channel = FileChannel.open(file, options)) {
+			IDomain domain = FuzzyFormat.readHeader(channel, FuzzyFormat.DENSE);
+			
+			long offset = FuzzyFormat.headerSize(domain.getNumberOfComponents());
+			if (channel.size() < offset + (long) domain.getCardinality() * Double.BYTES)
+				throw new IOException("Fuzzy set file " + file + " is truncated.");
+			
+			return new MappedFuzzySet(domain, channel, offset, writable ? MapMode.READ_WRITE : MapMode.READ_ONLY);
+		}
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		return getValueAtIndex(domain.indexOfElement(element));
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+	}
+	
+	public MappedFuzzySet set(DomainElement element, double membership) {
+		int index = domain.indexOfElement(element);
+		chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, membership);
+		return this;
+	}
+	
+	/**
+	 * Writes changes of the memberships through to the file.
+	 */
+	public void force() {
+		for (MappedByteBuffer mapping : mappings) {
+			mapping.force();
+		}
+	}
+	
+	/**
+	 * Copies <code>length</code> memberships starting at index <code>from</code> into <code>dst</code>.
+	 */
+	void read(int from, double[] dst, int offset, int length) {
+		while (length > 0) {
+			DoubleBuffer chunk = chunks[from >>> CHUNK_SHIFT].duplicate();
+			chunk.position(from & CHUNK_MASK);
+			int count = Math.min(length, chunk.remaining());
+			chunk.get(dst, offset, count);
+			
+			from += count;
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Copies <code>length</code> memberships from <code>src</code> to the set, starting at index <code>from</code>.
+	 */
+	void write(int from, double[] src, int offset, int length) {
+		while (length > 0) {
+			DoubleBuffer chunk = chunks[from >>> CHUNK_SHIFT].duplicate();
+			chunk.position(from & CHUNK_MASK);
+			int count = Math.min(length, chunk.remaining());
+			chunk.put(src, offset, count);
+			
+			from += count;
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < domain.getCardinality(); i++) {
+			DomainElement element = domain.elementForIndex(i);
+			double value = getValueAtIndex(i);
+			
+			if (Math.abs(value) > 10e-6)
+				sb.append("(" + element + ", " + value + ")" + (i == domain.getCardinality() - 1 ? "" : ", "));
+		}
+		
+		return sb.toString();
+	}
+	
+}
@@ -6,11 +6,18 @@ public class MutableFuzzySet implements IFuzzySet {
 	
 	private double[] memberships;
 	
+	private AlphaCutIndex alphaCutIndex;
+	
 	public MutableFuzzySet(IDomain domain) {
 		this.domain = domain;
 		memberships = new double[domain.getCardinality()];
 	}
 	
+	MutableFuzzySet(IDomain domain, double[] memberships) {
+		this.domain = domain;
+		this.memberships = memberships;
+	}
+	
 	@Override
 	public IDomain getDomain() {
 		return domain;
@@ -21,11 +28,61 @@ public class MutableFuzzySet implements IFuzzySet {
 		return memberships[domain.indexOfElement(element)];
 	}
 	
+	@Override
+	public double getValueAtIndex(int index) {
+		return memberships[index];
+	}
+	
+	double[] memberships() {
+		return memberships;
+	}
+	
 	public MutableFuzzySet set(DomainElement element, double membership) {
-		memberships[domain.indexOfElement(element)] = membership;
+		return setAtIndex(domain.indexOfElement(element), membership);
+	}
+	
+	/**
+	 * Sets the membership of the element with the given component values.
+	 * 
+	 * @param values - the component values, one per component of the domain
+	 * @param membership - the new membership
+	 * @return this set
+	 */
+	public MutableFuzzySet setAtValues(int[] values, double membership) {
+		return setAtIndex(domain.indexOf(values), membership);
+	}
+	
+	/**
+	 * Sets the membership of the pair <code>(x, y)</code> of a binary relation.
+	 * 
+	 * @param x - value of the first component
+	 * @param y - value of the second component
+	 * @param membership - the new membership
+	 * @return this set
+	 */
+	public MutableFuzzySet set2(int x, int y, double membership) {
+		return setAtIndex(domain.indexOf(x, y), membership);
+	}
+	
+	private MutableFuzzySet setAtIndex(int index, double membership) {
+		memberships[index] = membership;
+		if (alphaCutIndex != null) alphaCutIndex.update(index, membership);
+		
 		return this;
 	}
 	
+	/**
+	 * Returns the alpha-cut index of this set, building it on the first call.
+	 * The index is updated by every later call to {@link #set(DomainElement, double)}.
+	 * 
+	 * @return the alpha-cut index of this set
+	 */
+	public AlphaCutIndex alphaCutIndex() {
+		if (alphaCutIndex == null) alphaCutIndex = new AlphaCutIndex(domain, memberships);
+		
+		return alphaCutIndex;
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
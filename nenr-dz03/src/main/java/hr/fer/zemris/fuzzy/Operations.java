@@ -2,6 +2,12 @@ package hr.fer.zemris.fuzzy;
 
 public class Operations {
 	
+	/**
+	 * Largest share of non-zero memberships for which results of operations
+	 * are stored as a {@link SparseFuzzySet}.
+	 */
+	public static final double MAX_SPARSE_DENSITY = 0.25;
+	
 	public static final IUnaryFunction ZADEH_NOT = new IUnaryFunction() {
 		@Override
 		public double valueAt(double membership) {
@@ -22,27 +28,141 @@ public class Operations {
 			return Math.max(membership1, membership2);
 		}
 	};
+	
+	public static final IBinaryFunction ALGEBRAIC_PRODUCT = new IBinaryFunction() {
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			return membership1 * membership2;
+		}
+	};
+	
+	public static final IBinaryFunction ALGEBRAIC_SUM = new IBinaryFunction() {
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			return membership1 + membership2 - membership1 * membership2;
+		}
+	};
+	
+	public static final IBinaryFunction LUKASIEWICZ_AND = new IBinaryFunction() {
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			return Math.max(0, membership1 + membership2 - 1);
+		}
+	};
+	
+	public static final IBinaryFunction LUKASIEWICZ_OR = new IBinaryFunction() {
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			return Math.min(1, membership1 + membership2);
+		}
+	};
 
 	public static IFuzzySet unaryOperation(IFuzzySet set, IUnaryFunction unaryFunction) {
 		IDomain domain = set.getDomain();
-		MutableFuzzySet resultSet = new MutableFuzzySet(domain);
 		
-		for (DomainElement element : domain) {
-			resultSet.set(element, unaryFunction.valueAt(set.getValueAt(element)));
+		if (set instanceof PiecewiseLinearFuzzySet && unaryFunction == ZADEH_NOT) {
+			return ((PiecewiseLinearFuzzySet) set).complement();
 		}
 		
-		return resultSet;
+		if (set instanceof CrispSet && unaryFunction == ZADEH_NOT) {
+			return ((CrispSet) set).complement();
+		}
+		
+		if (set instanceof CompactFuzzySet) {
+			return CompactKernels.unary((CompactFuzzySet) set, unaryFunction);
+		}
+		
+		if (set instanceof SparseFuzzySet) {
+			SparseFuzzySet result = SparseKernels.unary((SparseFuzzySet) set, unaryFunction);
+			if (result != null) return result;
+		}
+		
+		double[] dense = denseArray(set);
+		if (dense != null) {
+			return pack(domain, DenseKernels.unary(dense, unaryFunction));
+		}
+		
+		double[] memberships = new double[domain.getCardinality()];
+		
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = unaryFunction.valueAt(set.getValueAtIndex(i));
+		}
+		
+		return pack(domain, memberships);
 	}
 
 	public static IFuzzySet binaryOperation(IFuzzySet first, IFuzzySet second, IBinaryFunction binaryFunction) {
 		IDomain domain = first.getDomain();
-		MutableFuzzySet resultSet = new MutableFuzzySet(domain);
+		boolean sameDomain = domain.equals(second.getDomain());
+		
+		if (sameDomain && first instanceof PiecewiseLinearFuzzySet && second instanceof PiecewiseLinearFuzzySet) {
+			PiecewiseLinearFuzzySet set1 = (PiecewiseLinearFuzzySet) first;
+			PiecewiseLinearFuzzySet set2 = (PiecewiseLinearFuzzySet) second;
+			if (binaryFunction == ZADEH_OR) return set1.union(set2);
+			if (binaryFunction == ZADEH_AND) return set1.intersection(set2);
+		}
+		
+		if (sameDomain && first instanceof CrispSet && second instanceof CrispSet) {
+			if (binaryFunction == ZADEH_OR) return ((CrispSet) first).union((CrispSet) second);
+			if (binaryFunction == ZADEH_AND) return ((CrispSet) first).intersection((CrispSet) second);
+		}
+		
+		if (sameDomain && first instanceof CompactFuzzySet && second instanceof CompactFuzzySet
+				&& ((CompactFuzzySet) first).getBits() == ((CompactFuzzySet) second).getBits()) {
+			return CompactKernels.binary((CompactFuzzySet) first, (CompactFuzzySet) second, binaryFunction);
+		}
+		
+		if (sameDomain && first instanceof SparseFuzzySet && second instanceof SparseFuzzySet) {
+			SparseFuzzySet result = SparseKernels.binary((SparseFuzzySet) first, (SparseFuzzySet) second, binaryFunction);
+			if (result != null) {
+				return result.getSupportSize() > domain.getCardinality() * MAX_SPARSE_DENSITY
+						? new MutableFuzzySet(domain, result.toDenseArray())
+						: result;
+			}
+		}
+		
+		double[] dense1 = sameDomain ? denseArray(first) : null;
+		double[] dense2 = sameDomain ? denseArray(second) : null;
+		if (dense1 != null && dense2 != null) {
+			return pack(domain, DenseKernels.binary(dense1, dense2, binaryFunction));
+		}
+		
+		double[] memberships = new double[domain.getCardinality()];
 		
-		for (DomainElement element : domain) {
-			resultSet.set(element, binaryFunction.valueAt(first.getValueAt(element), second.getValueAt(element)));
+		if (sameDomain) {
+			for (int i = 0; i < memberships.length; i++) {
+				memberships[i] = binaryFunction.valueAt(first.getValueAtIndex(i), second.getValueAtIndex(i));
+			}
+		} else {
+			for (int i = 0; i < memberships.length; i++) {
+				DomainElement element = domain.elementForIndex(i);
+				memberships[i] = binaryFunction.valueAt(first.getValueAtIndex(i), second.getValueAt(element));
+			}
 		}
 		
-		return resultSet;
+		return pack(domain, memberships);
+	}
+	
+	/**
+	 * Wraps computed memberships into a set, choosing a sparse representation
+	 * when at most {@link #MAX_SPARSE_DENSITY} of the elements are non-zero.
+	 */
+	static IFuzzySet pack(IDomain domain, double[] memberships) {
+		int support = SparseFuzzySet.countNonZero(memberships);
+		
+		if (support <= memberships.length * MAX_SPARSE_DENSITY) {
+			return SparseFuzzySet.fromDense(domain, memberships, support);
+		}
+		
+		return new MutableFuzzySet(domain, memberships);
+	}
+	
+	private static double[] denseArray(IFuzzySet set) {
+		if (set instanceof MutableFuzzySet) return ((MutableFuzzySet) set).memberships();
+		if (set instanceof SparseFuzzySet) return ((SparseFuzzySet) set).toDenseArray();
+		if (set instanceof CalculatedFuzzySet) return ((CalculatedFuzzySet) set).denseTable();
+		
+		return null;
 	}
 
 	public static IUnaryFunction zadehNot() {
@@ -57,29 +177,65 @@ public class Operations {
 		return ZADEH_OR;
 	}
 
+	public static IBinaryFunction algebraicProduct() {
+		return ALGEBRAIC_PRODUCT;
+	}
+
+	public static IBinaryFunction algebraicSum() {
+		return ALGEBRAIC_SUM;
+	}
+
+	public static IBinaryFunction lukasiewiczAnd() {
+		return LUKASIEWICZ_AND;
+	}
+
+	public static IBinaryFunction lukasiewiczOr() {
+		return LUKASIEWICZ_OR;
+	}
+
 	public static IBinaryFunction hamacherTNorm(double nu) {
-		return new IBinaryFunction() {
-			@Override
-			public double valueAt(double membership1, double membership2) {
-				double numerator = membership1 * membership2;
-				double denominator = nu + (1 - nu) / (membership1 + membership2 - numerator);
-				
-				return numerator / denominator;
-			}
-		};
+		return new HamacherTNorm(nu);
 	}
 
 	public static IBinaryFunction hamacherSNorm(double nu) {
-		return new IBinaryFunction() {
-			@Override
-			public double valueAt(double membership1, double membership2) {
-				double membershipProduct = membership1 * membership2;
-				double numerator = membership1 + membership2 - (2 - nu) * membershipProduct;
-				double denominator = 1 - (1 - nu) * membershipProduct;
-				
-				return numerator / denominator;
-			}
-		};
+		return new HamacherSNorm(nu);
+	}
+	
+	static class HamacherTNorm implements IBinaryFunction {
+		
+		final double nu;
+		
+		HamacherTNorm(double nu) {
+			this.nu = nu;
+		}
+		
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			double numerator = membership1 * membership2;
+			double denominator = nu + (1 - nu) / (membership1 + membership2 - numerator);
+			
+			return numerator / denominator;
+		}
+		
+	}
+	
+	static class HamacherSNorm implements IBinaryFunction {
+		
+		final double nu;
+		
+		HamacherSNorm(double nu) {
+			this.nu = nu;
+		}
+		
+		@Override
+		public double valueAt(double membership1, double membership2) {
+			double membershipProduct = membership1 * membership2;
+			double numerator = membership1 + membership2 - (2 - nu) * membershipProduct;
+			double denominator = 1 - (1 - nu) * membershipProduct;
+			
+			return numerator / denominator;
+		}
+		
 	}
 
 }
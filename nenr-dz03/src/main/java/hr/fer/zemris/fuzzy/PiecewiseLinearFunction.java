@@ -0,0 +1,247 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+
+/**
+ * A membership function that is linear between a list of breakpoints and
+ * constant before the first and after the last one. Breakpoints are given in
+ * index space, the same as for any {@link IIntUnaryFunction}. Because the
+ * shape is known, clipping, scaling, complement, pointwise maximum and minimum
+ * and sums over index ranges are computed from the breakpoints alone.
+ */
+public class PiecewiseLinearFunction implements IIntUnaryFunction {
+	
+	private double[] xs;
+	
+	private double[] ys;
+	
+	/**
+	 * Creates a function through the points <code>(xs[k], ys[k])</code>.
+	 *
+	 * @param xs - strictly increasing breakpoint positions
+	 * @param ys - values at the breakpoints
+	 * @throws IllegalArgumentException if the arrays are empty, of different
+	 *         lengths or the positions are not strictly increasing
+	 */
+	public PiecewiseLinearFunction(double[] xs, double[] ys) {
+		if (xs.length == 0 || xs.length != ys.length)
+			throw new IllegalArgumentException("Expected the same non-zero number of positions and values.");
+		
+		for (int k = 1; k < xs.length; k++) {
+			if (!(xs[k] > xs[k - 1]))
+				throw new IllegalArgumentException("Breakpoint positions must be strictly increasing.");
+		}
+		
+		this.xs = xs.clone();
+		this.ys = ys.clone();
+	}
+	
+	public int getNumberOfBreakpoints() {
+		return xs.length;
+	}
+	
+	public double getBreakpoint(int k) {
+		return xs[k];
+	}
+	
+	public double getBreakpointValue(int k) {
+		return ys[k];
+	}
+	
+	@Override
+	public double valueAt(int index) {
+		return valueAt((double) index);
+	}
+	
+	public double valueAt(double x) {
+		if (x <= xs[0]) return ys[0];
+		if (x >= xs[xs.length - 1]) return ys[ys.length - 1];
+		
+		int k = Arrays.binarySearch(xs, x);
+		if (k >= 0) return ys[k];
+		
+		k = -k - 2;
+		return interpolate(k, x);
+	}
+	
+	/**
+	 * Returns min(f, <code>height</code>), the function clipped at a level.
+	 *
+	 * @param height - the clipping level
+	 * @return the clipped function
+	 */
+	public PiecewiseLinearFunction clip(double height) {
+		return combine(constant(height), false);
+	}
+	
+	/**
+	 * Returns the function multiplied by <code>factor</code>.
+	 *
+	 * @param factor - the scaling factor
+	 * @return the scaled function
+	 */
+	public PiecewiseLinearFunction scale(double factor) {
+		double[] scaled = new double[ys.length];
+		for (int k = 0; k < ys.length; k++) {
+			scaled[k] = ys[k] * factor;
+		}
+		
+		return new PiecewiseLinearFunction(xs, scaled);
+	}
+	
+	/**
+	 * Returns 1 - f.
+	 *
+	 * @return the complement of this function
+	 */
+	public PiecewiseLinearFunction complement() {
+		double[] complement = new double[ys.length];
+		for (int k = 0; k < ys.length; k++) {
+			complement[k] = 1 - ys[k];
+		}
+		
+		return new PiecewiseLinearFunction(xs, complement);
+	}
+	
+	/**
+	 * Returns the pointwise maximum of this function and <code>other</code>.
+	 *
+	 * @param other - the other function
+	 * @return max(f, g)
+	 */
+	public PiecewiseLinearFunction max(PiecewiseLinearFunction other) {
+		return combine(other, true);
+	}
+	
+	/**
+	 * Returns the pointwise minimum of this function and <code>other</code>.
+	 *
+	 * @param other - the other function
+	 * @return min(f, g)
+	 */
+	public PiecewiseLinearFunction min(PiecewiseLinearFunction other) {
+		return combine(other, false);
+	}
+	
+	/**
+	 * Sums the function and its first moment over the integer indices
+	 * <code>0, 1, ..., cardinality - 1</code> in time proportional to the number
+	 * of breakpoints.
+	 *
+	 * @param cardinality - number of indices to sum over
+	 * @return an array holding the sum of f(i) and the sum of i * f(i)
+	 */
+	public double[] sums(int cardinality) {
+		double sum = 0, moment = 0;
+		int last = cardinality - 1;
+		
+		int lo = 0;
+		int hi = Math.min(last, (int) Math.ceil(xs[0]) - 1);
+		if (hi >= lo) {
+			sum += ys[0] * count(lo, hi);
+			moment += ys[0] * sumOfIndices(lo, hi);
+			lo = hi + 1;
+		}
+		
+		for (int k = 0; k + 1 < xs.length && lo <= last; k++) {
+			hi = Math.min(last, (int) Math.ceil(xs[k + 1]) - 1);
+			if (hi < lo) continue;
+			
+			double slope = (ys[k + 1] - ys[k]) / (xs[k + 1] - xs[k]);
+			double intercept = ys[k] - slope * xs[k];
+			double s0 = count(lo, hi), s1 = sumOfIndices(lo, hi), s2 = sumOfSquares(lo, hi);
+			
+			sum += intercept * s0 + slope * s1;
+			moment += intercept * s1 + slope * s2;
+			lo = hi + 1;
+		}
+		
+		if (lo <= last) {
+			sum += ys[ys.length - 1] * count(lo, last);
+			moment += ys[ys.length - 1] * sumOfIndices(lo, last);
+		}
+		
+		return new double[] {sum, moment};
+	}
+	
+	private PiecewiseLinearFunction combine(PiecewiseLinearFunction other, boolean maximum) {
+		double[] positions = new double[2 * (xs.length + other.xs.length)];
+		double[] values = new double[positions.length];
+		int size = 0;
+		
+		int i = 0, j = 0;
+		double previous = Double.NaN;
+		while (i < xs.length || j < other.xs.length) {
+			double x;
+			if (j >= other.xs.length || (i < xs.length && xs[i] <= other.xs[j])) x = xs[i];
+			else x = other.xs[j];
+			if (i < xs.length && xs[i] == x) i++;
+			if (j < other.xs.length && other.xs[j] == x) j++;
+			
+			if (size > 0) {
+				double crossing = crossing(other, previous, x);
+				if (!Double.isNaN(crossing)) {
+					positions[size] = crossing;
+					values[size++] = valueAt(crossing);
+				}
+			}
+			
+			double f = valueAt(x), g = other.valueAt(x);
+			positions[size] = x;
+			values[size++] = maximum ? Math.max(f, g) : Math.min(f, g);
+			previous = x;
+		}
+		
+		return new PiecewiseLinearFunction(Arrays.copyOf(positions, size), Arrays.copyOf(values, size));
+	}
+	
+	/**
+	 * Finds where this function and <code>other</code> cross strictly inside
+	 * <code>(from, to)</code>, an interval on which both are linear.
+	 */
+	private double crossing(PiecewiseLinearFunction other, double from, double to) {
+		double d0 = valueAt(from) - other.valueAt(from);
+		double d1 = valueAt(to) - other.valueAt(to);
+		if (d0 == 0 || d1 == 0 || (d0 > 0) == (d1 > 0)) return Double.NaN;
+		
+		double x = from + (to - from) * d0 / (d0 - d1);
+		return x > from && x < to ? x : Double.NaN;
+	}
+	
+	private double interpolate(int k, double x) {
+		if (ys[k] == ys[k + 1]) return ys[k];
+		
+		return (ys[k] * (xs[k + 1] - x) + ys[k + 1] * (x - xs[k])) / (xs[k + 1] - xs[k]);
+	}
+	
+	private static PiecewiseLinearFunction constant(double value) {
+		return new PiecewiseLinearFunction(new double[] {0}, new double[] {value});
+	}
+	
+	private static double count(int lo, int hi) {
+		return hi - lo + 1;
+	}
+	
+	private static double sumOfIndices(int lo, int hi) {
+		return ((double) lo + hi) * (hi - lo + 1) / 2;
+	}
+	
+	private static double sumOfSquares(int lo, int hi) {
+		return squaresUpTo(hi) - squaresUpTo(lo - 1);
+	}
+	
+	private static double squaresUpTo(double n) {
+		return n * (n + 1) * (2 * n + 1) / 6;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < xs.length; k++) {
+			sb.append("(" + xs[k] + ", " + ys[k] + ")" + (k == xs.length - 1 ? "" : ", "));
+		}
+		
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,72 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A calculated fuzzy set over a simple domain whose membership function is a
+ * {@link PiecewiseLinearFunction}. Clipping, scaling, union, intersection and
+ * the centre of area are computed from the breakpoints, so their cost depends
+ * on the number of segments instead of on the cardinality of the domain.
+ */
+public class PiecewiseLinearFuzzySet extends CalculatedFuzzySet {
+	
+	private PiecewiseLinearFunction function;
+	
+	public PiecewiseLinearFuzzySet(IDomain domain, PiecewiseLinearFunction function) {
+		this(domain, function, Materialization.NONE);
+	}
+	
+	public PiecewiseLinearFuzzySet(IDomain domain, PiecewiseLinearFunction function, Materialization materialization) {
+		super(domain, function, materialization);
+		
+		if (domain.getNumberOfComponents() != 1)
+			throw new IllegalArgumentException("Piecewise linear sets are defined only over simple domains.");
+		
+		this.function = function;
+	}
+	
+	@Override
+	public PiecewiseLinearFunction getMembershipFunction() {
+		return function;
+	}
+	
+	public PiecewiseLinearFuzzySet clip(double height) {
+		return new PiecewiseLinearFuzzySet(getDomain(), function.clip(height));
+	}
+	
+	public PiecewiseLinearFuzzySet scale(double factor) {
+		return new PiecewiseLinearFuzzySet(getDomain(), function.scale(factor));
+	}
+	
+	public PiecewiseLinearFuzzySet complement() {
+		return new PiecewiseLinearFuzzySet(getDomain(), function.complement());
+	}
+	
+	public PiecewiseLinearFuzzySet union(PiecewiseLinearFuzzySet other) {
+		checkDomain(other);
+		return new PiecewiseLinearFuzzySet(getDomain(), function.max(other.function));
+	}
+	
+	public PiecewiseLinearFuzzySet intersection(PiecewiseLinearFuzzySet other) {
+		checkDomain(other);
+		return new PiecewiseLinearFuzzySet(getDomain(), function.min(other.function));
+	}
+	
+	/**
+	 * Computes the centre of area of this set over its discrete domain, that is
+	 * the sum of <code>mu(x) * x</code> divided by the sum of <code>mu(x)</code>,
+	 * in closed form over the segments.
+	 * 
+	 * @return the centre of area, <code>NaN</code> for an empty set
+	 */
+	public double centreOfArea() {
+		SimpleDomain domain = getDomain().getComponent(0);
+		double[] sums = function.sums(domain.getCardinality());
+		
+		return (domain.getFirst() * sums[0] + sums[1]) / sums[0];
+	}
+	
+	private void checkDomain(PiecewiseLinearFuzzySet other) {
+		if (!getDomain().equals(other.getDomain()))
+			throw new IllegalArgumentException("Both sets must be defined over the same domain.");
+	}
+	
+}
@@ -0,0 +1,86 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * Projection of fuzzy relations onto some of their components and
+ * cylindrical extension back to a larger domain. Projection walks the
+ * membership array once with precomputed strides and never creates domain
+ * elements. Extension returns a {@link CylindricalExtension} view that reads
+ * the original memberships.
+ */
+public final class Projections {
+	
+	private Projections() {}
+	
+	/**
+	 * Projects <code>set</code> onto the components at the given positions of
+	 * its domain, taking the supremum over the components that are dropped.
+	 * 
+	 * @param set - a fuzzy set over a domain of one or more components
+	 * @param components - distinct positions of the components to keep, in the order of the result domain
+	 * @return the projection
+	 * @throws IllegalArgumentException if the positions are out of range or repeat
+	 */
+	public static IFuzzySet projection(IFuzzySet set, int... components) {
+		IDomain domain = set.getDomain();
+		int k = domain.getNumberOfComponents();
+		if (components.length == 0)
+			throw new IllegalArgumentException("A projection keeps at least one component.");
+		
+		SimpleDomain[] kept = new SimpleDomain[components.length];
+		int[] resultStride = new int[k];
+		int stride = 1;
+		for (int i = components.length - 1; i >= 0; i--) {
+			int c = components[i];
+			if (c < 0 || c >= k || resultStride[c] != 0)
+				throw new IllegalArgumentException("Invalid or repeated component " + c + " in projection.");
+			
+			kept[i] = domain.getComponent(c);
+			resultStride[c] = stride;
+			stride *= kept[i].getCardinality();
+		}
+		
+		IDomain resultDomain = kept.length == 1 ? kept[0] : new CompositeDomain(kept);
+		double[] result = new double[resultDomain.getCardinality()];
+		double[] memberships = Relations.matrix(set);
+		
+		int[] size = new int[k];
+		for (int c = 0; c < k; c++) {
+			size[c] = domain.getComponent(c).getCardinality();
+		}
+		
+		int inner = size[k - 1];
+		int innerStride = resultStride[k - 1];
+		int[] counter = new int[k];
+		int offset = 0;
+		
+		for (int i = 0; i < memberships.length; i += inner) {
+			for (int j = 0, r = offset; j < inner; j++, r += innerStride) {
+				if (memberships[i + j] > result[r]) result[r] = memberships[i + j];
+			}
+			
+			for (int c = k - 2; c >= 0; c--) {
+				offset += resultStride[c];
+				if (++counter[c] < size[c]) break;
+				
+				offset -= resultStride[c] * size[c];
+				counter[c] = 0;
+			}
+		}
+		
+		return new MutableFuzzySet(resultDomain, result);
+	}
+	
+	/**
+	 * Extends <code>set</code> cylindrically to <code>domain</code>.
+	 * 
+	 * @param set - the set to extend
+	 * @param domain - the larger domain
+	 * @param components - for every component of the set's domain, the position of the same component in <code>domain</code>
+	 * @return a view with the memberships of the extension
+	 * @throws IllegalArgumentException if the components do not match
+	 */
+	public static CylindricalExtension cylindricalExtension(IFuzzySet set, IDomain domain, int... components) {
+		return new CylindricalExtension(set, domain, components);
+	}
+	
+}
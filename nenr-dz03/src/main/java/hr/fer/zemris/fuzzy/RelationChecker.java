@@ -0,0 +1,198 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import hr.fer.zemris.fuzzy.RelationViolation.Property;
+
+/**
+ * Checks reflexivity, symmetry and max-min transitivity of a dense or
+ * {@link CompactFuzzySet compact} relation over U x U in one fused pass.
+ * Compact relations are checked on their stored integers, since decoding
+ * preserves both order and equality. Rows are checked in parallel on the common
+ * fork/join pool. As soon as a violation is found, rows after it are skipped,
+ * so the reported counterexample is always the one in the lowest row,
+ * regardless of scheduling.
+ */
+final class RelationChecker {
+	
+	/**
+	 * Relations with fewer elements than this are checked on the calling thread.
+	 */
+	static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+	
+	private final double[] r;
+	
+	private final CompactFuzzySet q;
+	
+	private final double one;
+	
+	private final int n;
+	
+	private final SimpleDomain universe;
+	
+	private final boolean reflexivity;
+	
+	private final boolean symmetry;
+	
+	private final boolean transitivity;
+	
+	private final AtomicReference<RelationViolation> found = new AtomicReference<>();
+	
+	private RelationChecker(double[] r, CompactFuzzySet q, SimpleDomain universe, boolean reflexivity, boolean symmetry,
+			boolean transitivity) {
+		this.r = r;
+		this.q = q;
+		this.one = q == null ? 1 : q.getLevels();
+		this.n = universe.getCardinality();
+		this.universe = universe;
+		this.reflexivity = reflexivity;
+		this.symmetry = symmetry;
+		this.transitivity = transitivity;
+	}
+	
+	/**
+	 * Looks for a violation of the requested properties.
+	 * 
+	 * @param r - the relation as a dense row-major <code>n x n</code> matrix
+	 * @param universe - the set U the relation is defined over
+	 * @return the violation in the lowest row, or <code>null</code> if the relation has all properties
+	 */
+	static RelationViolation check(double[] r, SimpleDomain universe, boolean reflexivity, boolean symmetry,
+			boolean transitivity) {
+		return check(new RelationChecker(r, null, universe, reflexivity, symmetry, transitivity));
+	}
+	
+	/**
+	 * Looks for a violation of the requested properties without decoding the
+	 * quantized memberships.
+	 * 
+	 * @param q - the relation over U x U
+	 * @param universe - the set U the relation is defined over
+	 * @return the violation in the lowest row, or <code>null</code> if the relation has all properties
+	 */
+	static RelationViolation check(CompactFuzzySet q, SimpleDomain universe, boolean reflexivity, boolean symmetry,
+			boolean transitivity) {
+		return check(new RelationChecker(null, q, universe, reflexivity, symmetry, transitivity));
+	}
+	
+	private static RelationViolation check(RelationChecker checker) {
+		int n = checker.n;
+		
+		if ((long) n * n < SEQUENTIAL_THRESHOLD) {
+			checker.checkRows(0, n);
+		} else {
+			int rowsPerTask = Math.max(1, n / (8 * ForkJoinPool.getCommonPoolParallelism()));
+			checker.new CheckTask(0, n, rowsPerTask).invoke();
+		}
+		
+		return checker.found.get();
+	}
+	
+	private void checkRows(int rowFrom, int rowTo) {
+		for (int x = rowFrom; x < rowTo; x++) {
+			if (cancelled(x)) return;
+			
+			RelationViolation violation = checkRow(x);
+			if (violation != null) {
+				report(violation);
+				return;
+			}
+		}
+	}
+	
+	private RelationViolation checkRow(int x) {
+		int rowX = x * n;
+		
+		if (reflexivity && at(rowX + x) != one)
+			return violation(Property.REFLEXIVITY, x, x, x);
+		
+		if (symmetry) {
+			for (int y = x + 1; y < n; y++) {
+				if (at(rowX + y) != at(y * n + x))
+					return violation(Property.SYMMETRY, x, x, y, y, x);
+			}
+		}
+		
+		if (transitivity) {
+			for (int y = 0; y < n; y++) {
+				double xy = at(rowX + y);
+				if (xy == 0) continue;
+				
+				int rowY = y * n;
+				for (int z = 0; z < n; z++) {
+					if (Math.min(xy, at(rowY + z)) > at(rowX + z))
+						return violation(Property.MAX_MIN_TRANSITIVITY, x, x, y, y, z, x, z);
+				}
+				
+				if (cancelled(x)) return null;
+			}
+		}
+		
+		return null;
+	}
+	
+	private double at(int index) {
+		return r != null ? r[index] : q.getQuantized(index);
+	}
+	
+	private boolean cancelled(int row) {
+		RelationViolation violation = found.get();
+		return violation != null && violation.getRow() < row;
+	}
+	
+	private void report(RelationViolation violation) {
+		found.accumulateAndGet(violation, (current, candidate) ->
+				current == null || candidate.getRow() < current.getRow() ? candidate : current);
+	}
+	
+	private RelationViolation violation(Property property, int row, int... offsets) {
+		return violation(universe, property, row, offsets);
+	}
+	
+	/**
+	 * Builds a violation from pairs of offsets into the universe.
+	 */
+	static RelationViolation violation(SimpleDomain universe, Property property, int row, int... offsets) {
+		int first = universe.getFirst();
+		DomainElement[] elements = new DomainElement[offsets.length / 2];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = DomainElement.of(first + offsets[2 * i], first + offsets[2 * i + 1]);
+		}
+		
+		return new RelationViolation(property, row, elements);
+	}
+	
+	private class CheckTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final int rowFrom;
+		
+		private final int rowTo;
+		
+		private final int rowsPerTask;
+		
+		CheckTask(int rowFrom, int rowTo, int rowsPerTask) {
+			this.rowFrom = rowFrom;
+			this.rowTo = rowTo;
+			this.rowsPerTask = rowsPerTask;
+		}
+		
+		@Override
+		protected void compute() {
+			if (cancelled(rowFrom)) return;
+			
+			if (rowTo - rowFrom <= rowsPerTask) {
+				checkRows(rowFrom, rowTo);
+				return;
+			}
+			
+			int middle = (rowFrom + rowTo) >>> 1;
+			invokeAll(new CheckTask(rowFrom, middle, rowsPerTask), new CheckTask(middle, rowTo, rowsPerTask));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,69 @@
+package hr.fer.zemris.fuzzy;
+
+/**
+ * A counterexample showing that a relation over U x U lacks one of the
+ * properties of a fuzzy equivalence relation.
+ */
+public class RelationViolation {
+	
+	public enum Property {
+		
+		/**
+		 * mu(x, x) is not 1.
+		 */
+		REFLEXIVITY,
+		
+		/**
+		 * mu(x, y) differs from mu(y, x).
+		 */
+		SYMMETRY,
+		
+		/**
+		 * mu(x, z) is smaller than min(mu(x, y), mu(y, z)).
+		 */
+		MAX_MIN_TRANSITIVITY
+		
+	}
+	
+	private Property property;
+	
+	private DomainElement[] elements;
+	
+	private int row;
+	
+	RelationViolation(Property property, int row, DomainElement... elements) {
+		this.property = property;
+		this.row = row;
+		this.elements = elements;
+	}
+	
+	public Property getProperty() {
+		return property;
+	}
+	
+	/**
+	 * Returns the elements of the relation that form the counterexample:
+	 * (x, x) for reflexivity, (x, y) and (y, x) for symmetry and (x, y), (y, z)
+	 * and (x, z) for transitivity.
+	 * 
+	 * @return elements of the relation's domain
+	 */
+	public DomainElement[] getElements() {
+		return elements.clone();
+	}
+	
+	int getRow() {
+		return row;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(property.toString());
+		for (DomainElement element : elements) {
+			sb.append(" " + element);
+		}
+		
+		return sb.toString();
+	}
+	
+}
@@ -1,130 +1,347 @@
 package hr.fer.zemris.fuzzy;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 public class Relations {
 	
 	public static boolean isFuzzyEquivalence(IFuzzySet relation) {
-		return isReflexive(relation) && isSymmetric(relation) && isMaxMinTransitive(relation);
+		if (!isUTimesURelation(relation)) return false;
+		
+		return findEquivalenceViolation(relation) == null;
+	}
+	
+	/**
+	 * Checks reflexivity, symmetry and max-min transitivity of
+	 * <code>relation</code> in one parallel pass that stops as soon as any
+	 * property is violated.
+	 * 
+	 * @param relation - relation over U x U
+	 * @return a counterexample in the lowest violating row of the relation, or
+	 *         <code>null</code> if <code>relation</code> is a fuzzy equivalence
+	 * @throws IllegalArgumentException if <code>relation</code> is not over U x U
+	 */
+	public static RelationViolation findEquivalenceViolation(IFuzzySet relation) {
+		if (!isUTimesURelation(relation))
+			throw new IllegalArgumentException("Fuzzy equivalence is defined only for relations over U x U.");
+		
+		return check(relation, true, true, true);
 	}
 	
 	public static IFuzzySet compositionOfBinaryRelations(IFuzzySet r1, IFuzzySet r2) {
+		return supTComposition(r1, r2, Operations.zadehAnd());
+	}
+	
+	/**
+	 * Computes the sup-T composition of <code>r1</code> over U x V and
+	 * <code>r2</code> over V x W. With the Zadeh minimum this is the
+	 * ordinary max-min composition.
+	 * 
+	 * @param r1 - relation over U x V
+	 * @param r2 - relation over V x W
+	 * @param tNorm - the t-norm combining the two relations
+	 * @return the composed relation over U x W
+	 * @throws IllegalArgumentException if the relations are not binary or do not share V
+	 */
+	public static IFuzzySet supTComposition(IFuzzySet r1, IFuzzySet r2, IBinaryFunction tNorm) {
+		if (tNorm == Operations.ZADEH_AND && r1 instanceof CompactFuzzySet && r2 instanceof CompactFuzzySet
+				&& ((CompactFuzzySet) r1).getBits() == ((CompactFuzzySet) r2).getBits()) {
+			IDomain domain = compositionDomain(r1, r2);
+			int n = r1.getDomain().getComponent(0).getCardinality();
+			int m = r1.getDomain().getComponent(1).getCardinality();
+			int p = r2.getDomain().getComponent(1).getCardinality();
+			
+			return CompactKernels.compose((CompactFuzzySet) r1, (CompactFuzzySet) r2, domain, n, m, p);
+		}
+		
+		return composition(r1, r2, CompositionKernel.supT(tNorm));
+	}
+	
+	/**
+	 * Computes the inf-S composition of <code>r1</code> over U x V and
+	 * <code>r2</code> over V x W.
+	 * 
+	 * @param r1 - relation over U x V
+	 * @param r2 - relation over V x W
+	 * @param sNorm - the s-norm combining the two relations
+	 * @return the composed relation over U x W
+	 * @throws IllegalArgumentException if the relations are not binary or do not share V
+	 */
+	public static IFuzzySet infSComposition(IFuzzySet r1, IFuzzySet r2, IBinaryFunction sNorm) {
+		return composition(r1, r2, CompositionKernel.infS(sNorm));
+	}
+	
+	/**
+	 * Computes the sup-T composition of <code>r1</code> over U x V and
+	 * <code>r2</code> over V x W into a new mapped file. The operands are read
+	 * tile by tile, so neither they nor the result have to fit on the heap.
+	 * 
+	 * @param r1 - relation over U x V
+	 * @param r2 - relation over V x W
+	 * @param tNorm - the t-norm combining the two relations
+	 * @param target - file to store the composed relation in
+	 * @return the composed relation over U x W, mapped from <code>target</code>
+	 * @throws IOException if <code>target</code> cannot be created
+	 * @throws IllegalArgumentException if the relations are not binary or do not share V
+	 */
+	public static MappedFuzzySet supTComposition(IFuzzySet r1, IFuzzySet r2, IBinaryFunction tNorm, Path target)
+			throws IOException {
+		return composition(r1, r2, CompositionKernel.supT(tNorm), target);
+	}
+	
+	/**
+	 * Computes the inf-S composition of <code>r1</code> over U x V and
+	 * <code>r2</code> over V x W into a new mapped file.
+	 * 
+	 * @param r1 - relation over U x V
+	 * @param r2 - relation over V x W
+	 * @param sNorm - the s-norm combining the two relations
+	 * @param target - file to store the composed relation in
+	 * @return the composed relation over U x W, mapped from <code>target</code>
+	 * @throws IOException if <code>target</code> cannot be created
+	 * @throws IllegalArgumentException if the relations are not binary or do not share V
+	 * @see #supTComposition(IFuzzySet, IFuzzySet, IBinaryFunction, Path)
+	 */
+	public static MappedFuzzySet infSComposition(IFuzzySet r1, IFuzzySet r2, IBinaryFunction sNorm, Path target)
+			throws IOException {
+		return composition(r1, r2, CompositionKernel.infS(sNorm), target);
+	}
+	
+	/**
+	 * Composes in memory, or tile by tile when an operand is mapped or
+	 * compact. Two compact operands give a compact result of the wider
+	 * quantization.
+	 */
+	private static IFuzzySet composition(IFuzzySet r1, IFuzzySet r2, CompositionKernel kernel) {
+		IDomain domain = compositionDomain(r1, r2);
+		int n = r1.getDomain().getComponent(0).getCardinality();
+		int m = r1.getDomain().getComponent(1).getCardinality();
+		int p = r2.getDomain().getComponent(1).getCardinality();
+		
+		if (r1 instanceof CompactFuzzySet && r2 instanceof CompactFuzzySet) {
+			int bits = Math.max(((CompactFuzzySet) r1).getBits(), ((CompactFuzzySet) r2).getBits());
+			CompactFuzzySet result = new CompactFuzzySet(domain, bits);
+			TiledRelations.compose(r1, r2, result, n, m, p, kernel);
+			return result;
+		}
+		
+		if (r1 instanceof MappedFuzzySet || r2 instanceof MappedFuzzySet
+				|| r1 instanceof CompactFuzzySet || r2 instanceof CompactFuzzySet) {
+			MutableFuzzySet result = new MutableFuzzySet(domain);
+			TiledRelations.compose(r1, r2, result, n, m, p, kernel);
+			return result;
+		}
+		
+		double[] composition = CompositionEngine.compose(matrix(r1), matrix(r2), n, m, p, kernel);
+		
+		return new MutableFuzzySet(domain, composition);
+	}
+	
+	private static MappedFuzzySet composition(IFuzzySet r1, IFuzzySet r2, CompositionKernel kernel, Path target)
+			throws IOException {
+		MappedFuzzySet result = MappedFuzzySet.create(target, compositionDomain(r1, r2));
+		int n = r1.getDomain().getComponent(0).getCardinality();
+		int m = r1.getDomain().getComponent(1).getCardinality();
+		int p = r2.getDomain().getComponent(1).getCardinality();
+		
+		TiledRelations.compose(r1, r2, result, n, m, p, kernel);
+		
+		return result;
+	}
+	
+	/**
+	 * Returns U x W for relations over U x V and V x W.
+	 */
+	private static IDomain compositionDomain(IFuzzySet r1, IFuzzySet r2) {
 		IDomain r1Domain = r1.getDomain();
 		IDomain r2Domain = r2.getDomain();
+		if (r1Domain.getNumberOfComponents() != 2 || r2Domain.getNumberOfComponents() != 2
+				|| !r1Domain.getComponent(1).equals(r2Domain.getComponent(0)))
+			throw new IllegalArgumentException("Composition needs relations over U x V and V x W.");
 		
-		SimpleDomain u = r1Domain.getComponent(0);
-		SimpleDomain w = r2Domain.getComponent(1);
-		SimpleDomain v = r1Domain.getComponent(1);
-		IDomain domain = Domain.combine(u, w);
+		return Domain.combine(r1.getDomain().getComponent(0), r2.getDomain().getComponent(1));
+	}
+
+	/**
+	 * Computes the max-min transitive closure of a relation over U x U.
+	 * 
+	 * @param relation - relation over U x U
+	 * @return the smallest max-min transitive relation containing <code>relation</code>
+	 */
+	public static IFuzzySet transitiveClosure(IFuzzySet relation) {
+		return transitiveClosure(relation, Operations.zadehAnd());
+	}
+	
+	/**
+	 * Computes the sup-T transitive closure of a relation over U x U by
+	 * repeated squaring: the relation is replaced by its union with its own
+	 * composition until nothing changes, which takes at most about
+	 * log2 |U| compositions. A {@link CompactFuzzySet} is closed in its own
+	 * quantization and the closure is compact as well.
+	 * 
+	 * @param relation - relation over U x U
+	 * @param tNorm - the t-norm of the sup-T composition
+	 * @return the smallest sup-T transitive relation containing <code>relation</code>
+	 * @throws IllegalArgumentException if <code>relation</code> is not over U x U
+	 */
+	public static IFuzzySet transitiveClosure(IFuzzySet relation, IBinaryFunction tNorm) {
+		if (!isUTimesURelation(relation))
+			throw new IllegalArgumentException("Transitive closure is defined only for relations over U x U.");
 		
-		MutableFuzzySet composition = new MutableFuzzySet(domain);
+		if (relation instanceof CompactFuzzySet)
+			return transitiveClosure((CompactFuzzySet) relation, tNorm);
 		
-		Iterator<DomainElement> itX = u.getComponent(0).iterator();
-		Iterator<DomainElement> itY = v.getComponent(0).iterator();
-		Iterator<DomainElement> itZ = w.getComponent(0).iterator();
+		int n = relation.getDomain().getComponent(0).getCardinality();
+		double[] closure = matrix(relation).clone();
+		CompositionKernel kernel = CompositionKernel.supT(tNorm);
 		
-		List<Double> minimums = new ArrayList<>();
-		while (itX.hasNext()) {
-			DomainElement currentX = itX.next();
-			int x = currentX.getComponentValue(0);
+		boolean changed = true;
+		while (changed) {
+			double[] square = CompositionEngine.compose(closure, closure, n, n, n, kernel);
 			
-			while (itZ.hasNext()) {
-				minimums.clear();
-				DomainElement currentZ = itZ.next();
-				int z = currentZ.getComponentValue(0);
-				
-				while (itY.hasNext()) {
-					DomainElement currentY = itY.next();
-					int y = currentY.getComponentValue(0);
-					double minimum = Math.min(
-							r1.getValueAt(DomainElement.of(x, y)), r2.getValueAt(DomainElement.of(y, z)));
-					minimums.add(minimum);
+			changed = false;
+			for (int i = 0; i < closure.length; i++) {
+				if (square[i] > closure[i]) {
+					closure[i] = square[i];
+					changed = true;
 				}
-				
-				itY = v.getComponent(0).iterator();
-				
-				double maximum = findMax(minimums);
-				composition.set(DomainElement.of(x, z), maximum);
 			}
+		}
+		
+		return new MutableFuzzySet(relation.getDomain(), closure);
+	}
+	
+	/**
+	 * Closes a compact relation by repeated squaring, taking the union with the
+	 * square as an integer maximum of the stored memberships.
+	 */
+	private static CompactFuzzySet transitiveClosure(CompactFuzzySet relation, IBinaryFunction tNorm) {
+		CompactFuzzySet closure = relation.copy();
+		int size = closure.getCardinality();
+		
+		boolean changed = true;
+		while (changed) {
+			CompactFuzzySet square = (CompactFuzzySet) supTComposition(closure, closure, tNorm);
 			
-			itZ = w.getComponent(0).iterator();
+			changed = false;
+			for (int i = 0; i < size; i++) {
+				int value = square.getQuantized(i);
+				if (value > closure.getQuantized(i)) {
+					closure.setQuantized(i, value);
+					changed = true;
+				}
+			}
 		}
 		
-		return composition;
+		return closure;
 	}
-
-	public static boolean isSymmetric(IFuzzySet relation) {
-		if (!isUTimesURelation(relation)) return false;
+	
+	/**
+	 * Partitions the universe of a fuzzy equivalence relation into crisp
+	 * equivalence classes at every alpha level in one sweep. The sweep builds a
+	 * maximum spanning tree of the relation in O(|U|^2), and the partition at
+	 * any level is read off the tree. For a reflexive and symmetric relation
+	 * that is not transitive the classes are those of its max-min transitive
+	 * closure.
+	 * 
+	 * @param relation - a reflexive and symmetric relation over U x U
+	 * @return the partitions at all alpha levels
+	 * @throws IllegalArgumentException if <code>relation</code> is not reflexive and symmetric over U x U
+	 */
+	public static AlphaLevelPartitions equivalenceClasses(IFuzzySet relation) {
+		if (!isReflexive(relation) || !isSymmetric(relation))
+			throw new IllegalArgumentException("Equivalence classes need a reflexive and symmetric relation over U x U.");
 		
-		IDomain domain = relation.getDomain();
-		Iterator<DomainElement> it = domain.iterator();
+		SimpleDomain universe = relation.getDomain().getComponent(0);
+		int n = universe.getCardinality();
+		double[] r = matrix(relation);
+		
+		boolean[] inTree = new boolean[n];
+		double[] best = new double[n];
+		int[] bestFrom = new int[n];
+		Arrays.fill(best, -1);
+		
+		int[] from = new int[Math.max(0, n - 1)];
+		int[] to = new int[from.length];
+		double[] grade = new double[from.length];
+		int edges = 0;
 		
-		while (it.hasNext()) {
-			DomainElement current = it.next();
-			DomainElement symmetricElement = DomainElement.of(current.getComponentValue(1), current.getComponentValue(0));
+		int current = 0;
+		for (int step = 0; step < n; step++) {
+			inTree[current] = true;
 			
-			if (relation.getValueAt(current) != relation.getValueAt(symmetricElement)) return false;
+			int next = -1;
+			int row = current * n;
+			for (int j = 0; j < n; j++) {
+				if (inTree[j]) continue;
+				
+				if (r[row + j] > best[j]) {
+					best[j] = r[row + j];
+					bestFrom[j] = current;
+				}
+				if (next < 0 || best[j] > best[next]) next = j;
+			}
+			
+			if (next < 0) break;
+			if (best[next] > 0) {
+				from[edges] = bestFrom[next];
+				to[edges] = next;
+				grade[edges++] = best[next];
+			}
+			current = next;
+		}
+		
+		Integer[] order = new Integer[edges];
+		for (int e = 0; e < edges; e++) {
+			order[e] = e;
 		}
+		Arrays.sort(order, (e1, e2) -> Double.compare(grade[e2], grade[e1]));
 		
-		return true;
+		int[] mergeFrom = new int[edges];
+		int[] mergeTo = new int[edges];
+		double[] mergeGrade = new double[edges];
+		for (int e = 0; e < edges; e++) {
+			mergeFrom[e] = from[order[e]];
+			mergeTo[e] = to[order[e]];
+			mergeGrade[e] = grade[order[e]];
+		}
+		
+		return new AlphaLevelPartitions(universe, mergeFrom, mergeTo, mergeGrade);
 	}
 
-	public static boolean isReflexive(IFuzzySet relation) {
+	public static boolean isSymmetric(IFuzzySet relation) {
 		if (!isUTimesURelation(relation)) return false;
 		
-		IDomain domain = relation.getDomain();
-		Iterator<DomainElement> it = domain.getComponent(0).iterator();
-		
-		while (it.hasNext()) {
-			DomainElement current = it.next();
-			int currentValue = current.getComponentValue(0);
-			
-			if (relation.getValueAt(DomainElement.of(currentValue, currentValue)) != 1)
-				return false;
-		}
+		return check(relation, false, true, false) == null;
+	}
+
+	public static boolean isReflexive(IFuzzySet relation) {
+		if (!isUTimesURelation(relation)) return false;
 		
-		return true;
+		return check(relation, true, false, false) == null;
 	}
 
 	public static boolean isMaxMinTransitive(IFuzzySet relation) {
 		if (!isUTimesURelation(relation)) return false;
 		
-		IDomain domain = relation.getDomain();
-		Iterator<DomainElement> itX = domain.getComponent(0).iterator();
-		Iterator<DomainElement> itY = domain.getComponent(0).iterator();
-		Iterator<DomainElement> itZ = domain.getComponent(0).iterator();
-		
-		List<Double> minimums = new ArrayList<>();
-		while (itX.hasNext()) {
-			DomainElement currentX = itX.next();
-			int x = currentX.getComponentValue(0);
-			
-			while (itZ.hasNext()) {
-				minimums.clear();
-				DomainElement currentZ = itZ.next();
-				int z = currentZ.getComponentValue(0);
-				
-				while (itY.hasNext()) {
-					DomainElement currentY = itY.next();
-					int y = currentY.getComponentValue(0);
-					double minimum = Math.min(
-							relation.getValueAt(DomainElement.of(x, y)), relation.getValueAt(DomainElement.of(y, z)));
-					minimums.add(minimum);
-				}
-				
-				itY = domain.getComponent(0).iterator();
-				
-				double maximum = findMax(minimums);
-				if (relation.getValueAt(DomainElement.of(x, z)) < maximum)
-					return false;
-			}
-			
-			itZ = domain.getComponent(0).iterator();
-		}
+		return check(relation, false, false, true) == null;
+	}
+
+	/**
+	 * Runs the fused property check, tile by tile for mapped relations and on
+	 * the stored integers for compact ones.
+	 */
+	private static RelationViolation check(IFuzzySet relation, boolean reflexivity, boolean symmetry, boolean transitivity) {
+		SimpleDomain universe = relation.getDomain().getComponent(0);
+		
+		if (relation instanceof CompactFuzzySet)
+			return RelationChecker.check((CompactFuzzySet) relation, universe, reflexivity, symmetry, transitivity);
+		
+		if (relation instanceof MappedFuzzySet)
+			return TiledRelations.check(relation, universe, reflexivity, symmetry, transitivity);
 		
-		return true;
+		return RelationChecker.check(matrix(relation), universe, reflexivity, symmetry, transitivity);
 	}
 
 	public static boolean isUTimesURelation(IFuzzySet relation) {
@@ -132,15 +349,20 @@ public class Relations {
 		return (domain.getNumberOfComponents() == 2 && domain.getComponent(0).equals(domain.getComponent(1)));
 	}
 	
-	private static double findMax(List<Double> minimums) {
-		double maximum = minimums.get(0);
+	/**
+	 * Returns the memberships of a binary relation as a dense row-major matrix.
+	 * Dense sets are returned as they are, so the result must not be modified.
+	 */
+	static double[] matrix(IFuzzySet relation) {
+		if (relation instanceof MutableFuzzySet) return ((MutableFuzzySet) relation).memberships();
+		if (relation instanceof SparseFuzzySet) return ((SparseFuzzySet) relation).toDenseArray();
 		
-		for (int i = 1; i < minimums.size(); i++) {
-			double current = minimums.get(i);
-			if (current > maximum) maximum = current;
+		double[] memberships = new double[relation.getDomain().getCardinality()];
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = relation.getValueAtIndex(i);
 		}
 		
-		return maximum;
+		return memberships;
 	}
 
 }
@@ -29,6 +29,27 @@ public class SimpleDomain extends Domain {
 		return 1;
 	}
 
+	@Override
+	public int indexOfElement(DomainElement element) {
+		if (element == null) return -1;
+		
+		return indexOf(element.values());
+	}
+	
+	@Override
+	public int indexOf(int... values) {
+		if (values.length != 1 || values[0] < first || values[0] >= last) return -1;
+		
+		return values[0] - first;
+	}
+	
+	@Override
+	public DomainElement elementForIndex(int index) {
+		if (index < 0 || index >= getCardinality()) return null;
+		
+		return new DomainElement(first + index);
+	}
+
 	@Override
 	public Iterator<DomainElement> iterator() {
 		return new Iterator<DomainElement>() {
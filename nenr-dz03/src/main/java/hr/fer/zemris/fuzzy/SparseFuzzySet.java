@@ -0,0 +1,151 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable fuzzy set that stores only its support. Indices of the elements
+ * with non-zero membership are kept sorted in one array and their memberships in
+ * a parallel array, so a set that is zero over most of its domain costs memory
+ * proportional to its support instead of to the domain cardinality.
+ */
+public class SparseFuzzySet implements IFuzzySet {
+	
+	private IDomain domain;
+	
+	private int[] indices;
+	
+	private double[] values;
+	
+	SparseFuzzySet(IDomain domain, int[] indices, double[] values) {
+		this.domain = domain;
+		this.indices = indices;
+		this.values = values;
+	}
+	
+	/**
+	 * Creates a sparse copy of <code>set</code>.
+	 * 
+	 * @param set - the set to copy
+	 * @return a set with the same memberships which stores only the support
+	 */
+	public static SparseFuzzySet of(IFuzzySet set) {
+		if (set instanceof SparseFuzzySet) return (SparseFuzzySet) set;
+		
+		IDomain domain = set.getDomain();
+		double[] memberships = new double[domain.getCardinality()];
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = set.getValueAtIndex(i);
+		}
+		
+		return fromDense(domain, memberships, countNonZero(memberships));
+	}
+	
+	static SparseFuzzySet fromDense(IDomain domain, double[] memberships, int support) {
+		int[] indices = new int[support];
+		double[] values = new double[support];
+		
+		int k = 0;
+		for (int i = 0; i < memberships.length; i++) {
+			if (memberships[i] != 0) {
+				indices[k] = i;
+				values[k++] = memberships[i];
+			}
+		}
+		
+		return new SparseFuzzySet(domain, indices, values);
+	}
+	
+	static int countNonZero(double[] memberships) {
+		int count = 0;
+		for (double membership : memberships) {
+			if (membership != 0) count++;
+		}
+		
+		return count;
+	}
+	
+	@Override
+	public IDomain getDomain() {
+		return domain;
+	}
+	
+	@Override
+	public double getValueAt(DomainElement element) {
+		int index = domain.indexOfElement(element);
+		if (index < 0) throw new IndexOutOfBoundsException("Element " + element + " is not in the domain.");
+		
+		return getValueAtIndex(index);
+	}
+	
+	@Override
+	public double getValueAtIndex(int index) {
+		Objects.checkIndex(index, domain.getCardinality());
+		
+		int position = Arrays.binarySearch(indices, index);
+		return position >= 0 ? values[position] : 0;
+	}
+	
+	/**
+	 * Returns the number of elements with non-zero membership.
+	 * 
+	 * @return the size of the support
+	 */
+	public int getSupportSize() {
+		return indices.length;
+	}
+	
+	/**
+	 * Returns the domain index of the <code>k</code>-th support element, in
+	 * ascending order of domain indices.
+	 * 
+	 * @param k - position in the support
+	 * @return the domain index of that element
+	 */
+	public int getSupportIndex(int k) {
+		return indices[k];
+	}
+	
+	/**
+	 * Returns the membership of the <code>k</code>-th support element.
+	 * 
+	 * @param k - position in the support
+	 * @return the membership of that element
+	 */
+	public double getSupportValue(int k) {
+		return values[k];
+	}
+	
+	int[] indices() {
+		return indices;
+	}
+	
+	double[] values() {
+		return values;
+	}
+	
+	double[] toDenseArray() {
+		double[] memberships = new double[domain.getCardinality()];
+		for (int k = 0; k < indices.length; k++) {
+			memberships[indices[k]] = values[k];
+		}
+		
+		return memberships;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		int last = domain.getCardinality() - 1;
+		
+		for (int k = 0; k < indices.length; k++) {
+			if (Math.abs(values[k]) > 10e-6) {
+				DomainElement element = domain.elementForIndex(indices[k]);
+				sb.append("(" + element + ", " + values[k] + ")" + (indices[k] == last ? "" : ", "));
+			}
+		}
+		
+		return sb.toString();
+	}
+	
+}
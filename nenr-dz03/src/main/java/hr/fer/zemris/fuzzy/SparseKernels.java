@@ -0,0 +1,81 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+
+/**
+ * Operations over the supports of sparse sets. A kernel only applies when the
+ * function maps zero memberships to zero, otherwise the result would not be
+ * sparse; in that case <code>null</code> is returned and the caller falls back
+ * to the dense path.
+ */
+final class SparseKernels {
+	
+	private SparseKernels() {}
+	
+	static SparseFuzzySet unary(SparseFuzzySet set, IUnaryFunction function) {
+		if (function.valueAt(0) != 0) return null;
+		
+		int[] indices = set.indices();
+		double[] values = set.values();
+		int[] resultIndices = new int[indices.length];
+		double[] resultValues = new double[indices.length];
+		
+		int k = 0;
+		for (int i = 0; i < indices.length; i++) {
+			double value = function.valueAt(values[i]);
+			if (value != 0) {
+				resultIndices[k] = indices[i];
+				resultValues[k++] = value;
+			}
+		}
+		
+		return trimmed(set.getDomain(), resultIndices, resultValues, k);
+	}
+	
+	static SparseFuzzySet binary(SparseFuzzySet first, SparseFuzzySet second, IBinaryFunction function) {
+		if (function.valueAt(0, 0) != 0) return null;
+		
+		int[] indices1 = first.indices();
+		double[] values1 = first.values();
+		int[] indices2 = second.indices();
+		double[] values2 = second.values();
+		int[] resultIndices = new int[indices1.length + indices2.length];
+		double[] resultValues = new double[resultIndices.length];
+		
+		int i = 0, j = 0, k = 0;
+		while (i < indices1.length || j < indices2.length) {
+			int index;
+			double value1 = 0, value2 = 0;
+			
+			if (j >= indices2.length || (i < indices1.length && indices1[i] < indices2[j])) {
+				index = indices1[i];
+				value1 = values1[i++];
+			} else if (i >= indices1.length || indices2[j] < indices1[i]) {
+				index = indices2[j];
+				value2 = values2[j++];
+			} else {
+				index = indices1[i];
+				value1 = values1[i++];
+				value2 = values2[j++];
+			}
+			
+			double value = function.valueAt(value1, value2);
+			if (value != 0) {
+				resultIndices[k] = index;
+				resultValues[k++] = value;
+			}
+		}
+		
+		return trimmed(first.getDomain(), resultIndices, resultValues, k);
+	}
+	
+	private static SparseFuzzySet trimmed(IDomain domain, int[] indices, double[] values, int size) {
+		if (size < indices.length) {
+			indices = Arrays.copyOf(indices, size);
+			values = Arrays.copyOf(values, size);
+		}
+		
+		return new SparseFuzzySet(domain, indices, values);
+	}
+	
+}
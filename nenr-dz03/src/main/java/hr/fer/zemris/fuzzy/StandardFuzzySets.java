@@ -1,33 +1,27 @@
 package hr.fer.zemris.fuzzy;
 
+import java.util.Arrays;
+
 public class StandardFuzzySets {
 	
 	public StandardFuzzySets() {}
 	
-	public static IIntUnaryFunction lFunction(int alpha, int beta) {
-		return new IIntUnaryFunction() {
-			@Override
-			public double valueAt(int index) {
-				if (index < alpha) return 1.;
-				else if (index >= beta) return 0.;
-				else return (beta - index) / (double)(beta - alpha);
-			}
-		};
+	public static PiecewiseLinearFunction lFunction(int alpha, int beta) {
+		if (alpha >= beta) return function(alpha - 1, 1, alpha, 0);
+		
+		return function(alpha, 1, beta, 0);
 	}
 	
-	public static IIntUnaryFunction gammaFunction(int alpha, int beta) {
-		return new IIntUnaryFunction() {
-			@Override
-			public double valueAt(int index) {
-				if (index < alpha) return 0.;
-				else if (index >= beta) return 1.;
-				else return (index - alpha) / (double)(beta - alpha);
-			}
-		};
+	public static PiecewiseLinearFunction gammaFunction(int alpha, int beta) {
+		if (alpha >= beta) return function(alpha - 1, 0, alpha, 1);
+		
+		return function(alpha, 0, beta, 1);
 	}
 	
-	public static IIntUnaryFunction lambdaFunction(int alpha, int beta, int gamma) {
-		return new IIntUnaryFunction() {
+	public static PiecewiseLinearFunction lambdaFunction(int alpha, int beta, int gamma) {
+		if (alpha < beta && beta < gamma) return function(alpha, 0, beta, 1, gamma, 0);
+		
+		IIntUnaryFunction definition = new IIntUnaryFunction() {
 			@Override
 			public double valueAt(int index) {
 				if (index < alpha) return 0.;
@@ -36,6 +30,30 @@ public class StandardFuzzySets {
 				else return 0.;
 			}
 		};
+		
+		int[] critical = {alpha - 1, alpha, beta - 1, beta, gamma - 1, gamma};
+		Arrays.sort(critical);
+		double[] xs = new double[critical.length];
+		double[] ys = new double[critical.length];
+		int size = 0;
+		for (int x : critical) {
+			if (size > 0 && xs[size - 1] == x) continue;
+			xs[size] = x;
+			ys[size++] = definition.valueAt(x);
+		}
+		
+		return new PiecewiseLinearFunction(Arrays.copyOf(xs, size), Arrays.copyOf(ys, size));
+	}
+	
+	private static PiecewiseLinearFunction function(double... points) {
+		double[] xs = new double[points.length / 2];
+		double[] ys = new double[points.length / 2];
+		for (int k = 0; k < xs.length; k++) {
+			xs[k] = points[2 * k];
+			ys[k] = points[2 * k + 1];
+		}
+		
+		return new PiecewiseLinearFunction(xs, ys);
 	}
 	
 }
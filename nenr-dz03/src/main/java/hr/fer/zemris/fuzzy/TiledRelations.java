@@ -0,0 +1,179 @@
+package hr.fer.zemris.fuzzy;
+
+import java.util.Arrays;
+
+import hr.fer.zemris.fuzzy.RelationViolation.Property;
+
+/**
+ * Composition and property checks for relations that are not held on the
+ * heap as doubles, such as {@link MappedFuzzySet}s and
+ * {@link CompactFuzzySet}s. Operands are streamed through
+ * tiles of at most {@link #TILE_ELEMENTS} memberships, and every tile is
+ * processed with the in-memory kernels, so heap use does not grow with the
+ * size of the relations.
+ */
+final class TiledRelations {
+	
+	/**
+	 * Maximum number of memberships in one tile (8 MiB of doubles).
+	 */
+	static final int TILE_ELEMENTS = 1 << 20;
+	
+	private TiledRelations() {}
+	
+	/**
+	 * Computes the composition of an <code>n x m</code> relation and an
+	 * <code>m x p</code> relation into <code>target</code>. Blocks of result
+	 * rows are computed against strips of the shared dimension, reading the
+	 * matching tiles of both operands.
+	 * 
+	 * @param r1 - the left operand
+	 * @param r2 - the right operand
+	 * @param target - dense, mapped or compact set receiving the <code>n x p</code> result
+	 * @param kernel - decides between sup-T and inf-S and the norm used
+	 */
+	static void compose(IFuzzySet r1, IFuzzySet r2, IFuzzySet target, int n, int m, int p, CompositionKernel kernel) {
+		int rows = Math.min(n, Math.max(1, TILE_ELEMENTS / Math.max(1, Math.max(m, p))));
+		int strip = Math.min(m, Math.max(1, TILE_ELEMENTS / Math.max(1, p)));
+		
+		double[] a = new double[rows * strip];
+		double[] b = new double[strip * p];
+		double[] c = new double[rows * p];
+		
+		for (int rowFrom = 0; rowFrom < n; rowFrom += rows) {
+			int height = Math.min(rows, n - rowFrom);
+			Arrays.fill(c, kernel.identity);
+			
+			for (int innerFrom = 0; innerFrom < m; innerFrom += strip) {
+				int width = Math.min(strip, m - innerFrom);
+				
+				read(r2, innerFrom * p, b, 0, width * p);
+				for (int i = 0; i < height; i++) {
+					read(r1, (rowFrom + i) * m + innerFrom, a, i * width, width);
+				}
+				
+				CompositionEngine.forEachRowBlock(height, (long) height * width * p,
+						(from, to) -> CompositionEngine.composeRows(a, b, c, width, p, from, to, kernel));
+			}
+			
+			write(target, rowFrom * p, c, 0, height * p);
+		}
+	}
+	
+	/**
+	 * Looks for a violation of the requested properties of a relation over
+	 * U x U, one block of rows at a time. The result is the same as that of
+	 * {@link RelationChecker#check(double[], SimpleDomain, boolean, boolean, boolean)}.
+	 * 
+	 * @param relation - relation over U x U
+	 * @param universe - the set U the relation is defined over
+	 * @return the violation in the lowest row, or <code>null</code> if the relation has all properties
+	 */
+	static RelationViolation check(IFuzzySet relation, SimpleDomain universe, boolean reflexivity, boolean symmetry,
+			boolean transitivity) {
+		int n = universe.getCardinality();
+		int rows = Math.min(n, Math.max(1, TILE_ELEMENTS / Math.max(1, n)));
+		
+		double[] block = new double[rows * n];
+		double[] column = new double[rows];
+		double[] strip = transitivity ? new double[rows * n] : null;
+		
+		for (int rowFrom = 0; rowFrom < n; rowFrom += rows) {
+			int height = Math.min(rows, n - rowFrom);
+			int first = rowFrom;
+			read(relation, rowFrom * n, block, 0, height * n);
+			
+			RelationViolation[] found = new RelationViolation[height];
+			
+			if (reflexivity) {
+				for (int i = 0; i < height; i++) {
+					int x = rowFrom + i;
+					if (block[i * n + x] != 1) found[i] = RelationChecker.violation(universe, Property.REFLEXIVITY, x, x, x);
+				}
+			}
+			
+			if (symmetry) {
+				for (int y = rowFrom + 1; y < n; y++) {
+					int count = Math.min(height, y - rowFrom);
+					read(relation, y * n + rowFrom, column, 0, count);
+					
+					for (int i = 0; i < count; i++) {
+						int x = rowFrom + i;
+						if (found[i] == null && block[i * n + y] != column[i])
+							found[i] = RelationChecker.violation(universe, Property.SYMMETRY, x, x, y, y, x);
+					}
+				}
+			}
+			
+			if (transitivity) {
+				for (int stripFrom = 0; stripFrom < n; stripFrom += rows) {
+					int width = Math.min(rows, n - stripFrom);
+					int yFrom = stripFrom;
+					read(relation, stripFrom * n, strip, 0, width * n);
+					
+					CompositionEngine.forEachRowBlock(height, (long) height * width * n, (from, to) -> {
+						for (int i = from; i < to; i++) {
+							if (found[i] != null) continue;
+							found[i] = transitivityViolation(block, strip, universe, n, i, first + i, yFrom, width);
+						}
+					});
+				}
+			}
+			
+			for (RelationViolation violation : found) {
+				if (violation != null) return violation;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Checks row <code>x</code>, held as row <code>i</code> of <code>block</code>,
+	 * against rows <code>[yFrom, yFrom + width)</code> held in <code>strip</code>.
+	 */
+	private static RelationViolation transitivityViolation(double[] block, double[] strip, SimpleDomain universe, int n,
+			int i, int x, int yFrom, int width) {
+		int rowX = i * n;
+		
+		for (int k = 0; k < width; k++) {
+			double xy = block[rowX + yFrom + k];
+			if (xy == 0) continue;
+			
+			int rowY = k * n;
+			for (int z = 0; z < n; z++) {
+				if (Math.min(xy, strip[rowY + z]) > block[rowX + z]) {
+					int y = yFrom + k;
+					return RelationChecker.violation(universe, Property.MAX_MIN_TRANSITIVITY, x, x, y, y, z, x, z);
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	static void read(IFuzzySet set, int from, double[] dst, int offset, int length) {
+		if (set instanceof MappedFuzzySet) {
+			((MappedFuzzySet) set).read(from, dst, offset, length);
+		} else if (set instanceof MutableFuzzySet) {
+			System.arraycopy(((MutableFuzzySet) set).memberships(), from, dst, offset, length);
+		} else if (set instanceof CompactFuzzySet) {
+			((CompactFuzzySet) set).read(from, dst, offset, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				dst[offset + i] = set.getValueAtIndex(from + i);
+			}
+		}
+	}
+	
+	static void write(IFuzzySet set, int from, double[] src, int offset, int length) {
+		if (set instanceof MappedFuzzySet) {
+			((MappedFuzzySet) set).write(from, src, offset, length);
+		} else if (set instanceof CompactFuzzySet) {
+			((CompactFuzzySet) set).write(from, src, offset, length);
+		} else {
+			System.arraycopy(src, offset, ((MutableFuzzySet) set).memberships(), from, length);
+		}
+	}
+	
+}
@@ -0,0 +1,91 @@
+package hr.fer.zemris.fuzzy.demo;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import hr.fer.zemris.fuzzy.Domain;
+import hr.fer.zemris.fuzzy.DomainElement;
+import hr.fer.zemris.fuzzy.IDomain;
+
+/**
+ * A small regression benchmark for domain indexing. For growing one and two
+ * dimensional domains it measures the average cost of one
+ * <code>indexOfElement</code> and <code>elementForIndex</code> call and
+ * compares it with the linear iterator scan the library used to perform.
+ * The linear timings grow with the cardinality while the direct ones stay flat.
+ */
+public class IndexingBenchmark {
+
+	/**
+	 * Number of random lookups measured per domain.
+	 */
+	private static final int LOOKUPS = 2_000;
+
+	/**
+	 * The starting point for this program's execution.
+	 *
+	 * @param args - command line arguments (not used)
+	 */
+	public static void main(String[] args) {
+		System.out.println(String.format("%-12s %12s %14s %14s %14s",
+				"domain", "cardinality", "linear [ns]", "index [ns]", "element [ns]"));
+
+		for (int size = 250; size <= 4000; size *= 2) {
+			run("1D " + size, Domain.intRange(0, size));
+		}
+
+		for (int size = 16; size <= 128; size *= 2) {
+			IDomain u = Domain.intRange(0, size);
+			run("2D " + size + "x" + size, Domain.combine(u, u));
+		}
+	}
+
+	private static void run(String name, IDomain domain) {
+		Random rand = new Random(42);
+		DomainElement[] queries = new DomainElement[LOOKUPS];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = domain.elementForIndex(rand.nextInt(domain.getCardinality()));
+		}
+
+		long checksum = 0;
+
+		long start = System.nanoTime();
+		for (DomainElement query : queries) {
+			checksum += linearIndexOf(domain, query);
+		}
+		long linear = (System.nanoTime() - start) / LOOKUPS;
+
+		int repetitions = 100;
+		start = System.nanoTime();
+		for (int r = 0; r < repetitions; r++) {
+			for (DomainElement query : queries) {
+				checksum -= domain.indexOfElement(query);
+			}
+		}
+		long direct = (System.nanoTime() - start) / (LOOKUPS * repetitions);
+
+		start = System.nanoTime();
+		for (int r = 0; r < repetitions; r++) {
+			for (int i = 0; i < LOOKUPS; i++) {
+				checksum += domain.elementForIndex(i % domain.getCardinality()).getNumberOfComponents();
+			}
+		}
+		long element = (System.nanoTime() - start) / (LOOKUPS * repetitions);
+
+		System.out.println(String.format("%-12s %12d %14d %14d %14d   (%d)",
+				name, domain.getCardinality(), linear, direct, element, checksum % 10));
+	}
+
+	private static int linearIndexOf(IDomain domain, DomainElement element) {
+		int i = 0;
+		Iterator<DomainElement> it = domain.iterator();
+
+		while (it.hasNext()) {
+			if (element.equals(it.next())) return i;
+			i++;
+		}
+
+		return -1;
+	}
+
+}
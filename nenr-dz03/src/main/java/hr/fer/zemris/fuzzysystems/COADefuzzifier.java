@@ -1,10 +1,9 @@
 package hr.fer.zemris.fuzzysystems;
 
-import java.util.Iterator;
-
-import hr.fer.zemris.fuzzy.DomainElement;
-import hr.fer.zemris.fuzzy.IDomain;
+import hr.fer.zemris.fuzzy.DomainCursor;
 import hr.fer.zemris.fuzzy.IFuzzySet;
+import hr.fer.zemris.fuzzy.PiecewiseLinearFuzzySet;
+import hr.fer.zemris.fuzzy.SparseFuzzySet;
 
 import static java.lang.Math.round;
 
@@ -17,14 +16,29 @@ public class COADefuzzifier implements Defuzzifier {
 	
 	@Override
 	public int decode(IFuzzySet fuzzySet) {
-		IDomain domain = fuzzySet.getDomain();
-		Iterator<DomainElement> it = domain.iterator();
+		if (fuzzySet instanceof PiecewiseLinearFuzzySet)
+			return (int)round(((PiecewiseLinearFuzzySet) fuzzySet).centreOfArea());
+		if (fuzzySet instanceof SparseFuzzySet) return decodeSparse((SparseFuzzySet) fuzzySet);
+		
+		DomainCursor cursor = fuzzySet.getDomain().cursor();
+		
+		double numerator = 0, denominator = 0;
+		while (cursor.next()) {
+			double membership = fuzzySet.getValueAtIndex(cursor.getIndex());
+			numerator += membership * cursor.getComponentValue(0);
+			denominator += membership;
+		}
+		
+		return (int)round(numerator / denominator);
+	}
+	
+	private int decodeSparse(SparseFuzzySet fuzzySet) {
+		int first = fuzzySet.getDomain().getComponent(0).getFirst();
 		
 		double numerator = 0, denominator = 0;
-		while (it.hasNext()) {
-			DomainElement de = it.next();
-			double membership = fuzzySet.getValueAt(de);
-			numerator += membership * de.getComponentValue(0);
+		for (int k = 0; k < fuzzySet.getSupportSize(); k++) {
+			double membership = fuzzySet.getSupportValue(k);
+			numerator += membership * (first + fuzzySet.getSupportIndex(k));
 			denominator += membership;
 		}
 		
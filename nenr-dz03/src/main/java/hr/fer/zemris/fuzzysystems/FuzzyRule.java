@@ -5,6 +5,9 @@ import java.util.List;
 import hr.fer.zemris.fuzzy.DomainElement;
 import hr.fer.zemris.fuzzy.IFuzzySet;
 import hr.fer.zemris.fuzzy.MutableFuzzySet;
+import hr.fer.zemris.fuzzy.PiecewiseLinearFuzzySet;
+
+import static hr.fer.zemris.fuzzysystems.Constants.*;
 
 /**
  * 
@@ -33,6 +36,12 @@ public class FuzzyRule {
 				membership = engine.conclude(membership, antecedent, DomainElement.of(values.get(i)));
 		}
 		
+		if (consequence instanceof PiecewiseLinearFuzzySet) {
+			PiecewiseLinearFuzzySet shape = (PiecewiseLinearFuzzySet) consequence;
+			if (engine == MINIMUM_ENGINE) return shape.clip(membership);
+			if (engine == PRODUCT_ENGINE) return shape.scale(membership);
+		}
+		
 		MutableFuzzySet localConclusion = new MutableFuzzySet(consequence.getDomain());
 		for (i = 0; i < localConclusion.getDomain().getCardinality(); i++) {
 			DomainElement element = localConclusion.getDomain().elementForIndex(i);
@@ -0,0 +1,42 @@
+package hr.fer.zemris.fuzzy.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class DemoTest {
+
+	@Test
+	public void outOfRangeSensorValues() {
+		assertEquals("26 0", run("0 0 10 10 360 0"));
+	}
+
+	@Test
+	public void negativeAndOversizedSensorValues() {
+		assertEquals("26 0", run("-5 2000 3 3 500 1"));
+	}
+
+	private static String run(String input) {
+		InputStream in = System.in;
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		try {
+			System.setIn(new ByteArrayInputStream((input + "\nKRAJ\n").getBytes(StandardCharsets.UTF_8)));
+			System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+			Demo.main(new String[0]);
+		} finally {
+			System.setIn(in);
+			System.setOut(out);
+		}
+
+		return buffer.toString(StandardCharsets.UTF_8).trim();
+	}
+
+}
@@ -0,0 +1,80 @@
+package hr.fer.zemris.fuzzy.benchmarks;
+
+import java.util.Random;
+
+import hr.fer.zemris.fuzzy.Domain;
+import hr.fer.zemris.fuzzy.DomainElement;
+import hr.fer.zemris.fuzzy.IDomain;
+import hr.fer.zemris.fuzzy.IFuzzySet;
+import hr.fer.zemris.fuzzy.MutableFuzzySet;
+
+/**
+ * Fixtures shared by the benchmarks. All random data comes from fixed seeds,
+ * so every run measures the same inputs.
+ */
+final class BenchmarkDomains {
+	
+	static final long SEED = 42;
+	
+	private BenchmarkDomains() {}
+	
+	/**
+	 * Builds a domain of <code>dimensions</code> equal components whose
+	 * cardinality is as close as possible to <code>cardinality</code>.
+	 * 
+	 * @param cardinality - the requested number of elements
+	 * @param dimensions - number of components
+	 * @return the domain
+	 */
+	static IDomain domain(int cardinality, int dimensions) {
+		int size = (int) Math.max(1, Math.round(Math.pow(cardinality, 1.0 / dimensions)));
+		IDomain component = Domain.intRange(0, size);
+		
+		IDomain domain = component;
+		for (int i = 1; i < dimensions; i++) {
+			domain = Domain.combine(domain, component);
+		}
+		
+		return domain;
+	}
+	
+	/**
+	 * Fills a dense set over <code>domain</code> with uniform random memberships.
+	 */
+	static MutableFuzzySet randomSet(IDomain domain, long seed) {
+		Random random = new Random(seed);
+		MutableFuzzySet set = new MutableFuzzySet(domain);
+		
+		for (DomainElement element : domain) {
+			set.set(element, random.nextDouble());
+		}
+		
+		return set;
+	}
+	
+	/**
+	 * Wraps <code>set</code> so that operations cannot recognise its
+	 * implementation and fall back to their generic per-element path.
+	 */
+	static IFuzzySet opaque(IFuzzySet set) {
+		return new IFuzzySet() {
+			
+			@Override
+			public IDomain getDomain() {
+				return set.getDomain();
+			}
+			
+			@Override
+			public double getValueAt(DomainElement element) {
+				return set.getValueAt(element);
+			}
+			
+			@Override
+			public double getValueAtIndex(int index) {
+				return set.getValueAtIndex(index);
+			}
+			
+		};
+	}
+	
+}
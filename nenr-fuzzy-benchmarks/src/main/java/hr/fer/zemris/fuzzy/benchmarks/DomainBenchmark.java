@@ -0,0 +1,99 @@
+package hr.fer.zemris.fuzzy.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.fuzzy.DomainCursor;
+import hr.fer.zemris.fuzzy.DomainElement;
+import hr.fer.zemris.fuzzy.IDomain;
+
+/**
+ * Iteration over a domain and mapping between elements and indices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+	
+	/**
+	 * Number of elements looked up per invocation.
+	 */
+	private static final int LOOKUPS = 1024;
+	
+	@Param({"1000", "100000", "1000000"})
+	public int cardinality;
+	
+	@Param({"1", "2", "3"})
+	public int dimensions;
+	
+	private IDomain domain;
+	
+	private DomainElement[] elements;
+	
+	private int[] indices;
+	
+	@Setup
+	public void setUp() {
+		domain = BenchmarkDomains.domain(cardinality, dimensions);
+		
+		Random random = new Random(BenchmarkDomains.SEED);
+		elements = new DomainElement[LOOKUPS];
+		indices = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			indices[i] = random.nextInt(domain.getCardinality());
+			elements[i] = domain.elementForIndex(indices[i]);
+		}
+	}
+	
+	@Benchmark
+	public long iterate() {
+		long sum = 0;
+		for (DomainElement element : domain) {
+			sum += element.getComponentValue(0);
+		}
+		
+		return sum;
+	}
+	
+	@Benchmark
+	public long cursor() {
+		long sum = 0;
+		DomainCursor cursor = domain.cursor();
+		while (cursor.next()) {
+			sum += cursor.getComponentValue(0);
+		}
+		
+		return sum;
+	}
+	
+	@Benchmark
+	public void indexOfElement(Blackhole blackhole) {
+		for (DomainElement element : elements) {
+			blackhole.consume(domain.indexOfElement(element));
+		}
+	}
+	
+	@Benchmark
+	public void elementForIndex(Blackhole blackhole) {
+		for (int index : indices) {
+			blackhole.consume(domain.elementForIndex(index));
+		}
+	}
+	
+}
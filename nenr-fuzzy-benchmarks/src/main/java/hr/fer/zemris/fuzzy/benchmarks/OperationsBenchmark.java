@@ -0,0 +1,98 @@
+package hr.fer.zemris.fuzzy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.fuzzy.IBinaryFunction;
+import hr.fer.zemris.fuzzy.IDomain;
+import hr.fer.zemris.fuzzy.IFuzzySet;
+import hr.fer.zemris.fuzzy.Operations;
+
+/**
+ * {@link Operations#binaryOperation(IFuzzySet, IFuzzySet, IBinaryFunction)}
+ * with every norm, once on dense sets and once on sets the library cannot
+ * look into, which measures the specialised kernels against the generic path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationsBenchmark {
+	
+	@Param({"1000", "100000", "1000000"})
+	public int cardinality;
+	
+	@Param({"1", "2", "3"})
+	public int dimensions;
+	
+	@Param({"zadehAnd", "zadehOr", "algebraicProduct", "algebraicSum", "lukasiewiczAnd", "lukasiewiczOr",
+			"hamacherTNorm", "hamacherSNorm"})
+	public String norm;
+	
+	private IFuzzySet first;
+	
+	private IFuzzySet second;
+	
+	private IFuzzySet opaqueFirst;
+	
+	private IFuzzySet opaqueSecond;
+	
+	private IBinaryFunction function;
+	
+	@Setup
+	public void setUp() {
+		IDomain domain = BenchmarkDomains.domain(cardinality, dimensions);
+		first = BenchmarkDomains.randomSet(domain, BenchmarkDomains.SEED);
+		second = BenchmarkDomains.randomSet(domain, BenchmarkDomains.SEED + 1);
+		opaqueFirst = BenchmarkDomains.opaque(first);
+		opaqueSecond = BenchmarkDomains.opaque(second);
+		function = norm(norm);
+	}
+	
+	@Benchmark
+	public IFuzzySet dense() {
+		return Operations.binaryOperation(first, second, function);
+	}
+	
+	@Benchmark
+	public IFuzzySet generic() {
+		return Operations.binaryOperation(opaqueFirst, opaqueSecond, function);
+	}
+	
+	static IBinaryFunction norm(String name) {
+		switch (name) {
+		case "zadehAnd":
+			return Operations.zadehAnd();
+		case "zadehOr":
+			return Operations.zadehOr();
+		case "algebraicProduct":
+			return Operations.algebraicProduct();
+		case "algebraicSum":
+			return Operations.algebraicSum();
+		case "lukasiewiczAnd":
+			return Operations.lukasiewiczAnd();
+		case "lukasiewiczOr":
+			return Operations.lukasiewiczOr();
+		case "hamacherTNorm":
+			return Operations.hamacherTNorm(0.5);
+		case "hamacherSNorm":
+			return Operations.hamacherSNorm(0.5);
+		default:
+			throw new IllegalArgumentException("Unknown norm " + name + ".");
+		}
+	}
+	
+}
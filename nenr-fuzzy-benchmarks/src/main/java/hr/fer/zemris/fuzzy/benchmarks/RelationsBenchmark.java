@@ -0,0 +1,81 @@
+package hr.fer.zemris.fuzzy.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.fuzzy.Domain;
+import hr.fer.zemris.fuzzy.DomainElement;
+import hr.fer.zemris.fuzzy.IDomain;
+import hr.fer.zemris.fuzzy.IFuzzySet;
+import hr.fer.zemris.fuzzy.MutableFuzzySet;
+import hr.fer.zemris.fuzzy.Relations;
+
+/**
+ * Max-min composition and the transitivity check on relations over U x U. The
+ * check runs on a transitive relation, which has to be scanned completely,
+ * and on a random one, where it stops at the first counterexample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationsBenchmark {
+	
+	@Param({"64", "256", "1024"})
+	public int universe;
+	
+	/**
+	 * Fraction of pairs with a non-zero grade in the random relation.
+	 */
+	@Param({"0.1", "1.0"})
+	public double density;
+	
+	private IFuzzySet relation;
+	
+	private IFuzzySet transitive;
+	
+	@Setup
+	public void setUp() {
+		IDomain u = Domain.intRange(0, universe);
+		IDomain uu = Domain.combine(u, u);
+		Random random = new Random(BenchmarkDomains.SEED);
+		
+		MutableFuzzySet set = new MutableFuzzySet(uu);
+		for (DomainElement element : uu) {
+			if (random.nextDouble() < density) set.set(element, random.nextDouble());
+		}
+		
+		relation = set;
+		transitive = Relations.transitiveClosure(set);
+	}
+	
+	@Benchmark
+	public IFuzzySet composition() {
+		return Relations.compositionOfBinaryRelations(relation, relation);
+	}
+	
+	@Benchmark
+	public boolean isMaxMinTransitive() {
+		return Relations.isMaxMinTransitive(transitive);
+	}
+	
+	@Benchmark
+	public boolean isMaxMinTransitiveEarlyExit() {
+		return Relations.isMaxMinTransitive(relation);
+	}
+	
+}